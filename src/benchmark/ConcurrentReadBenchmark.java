@@ -0,0 +1,125 @@
+package benchmark;
+
+import controller.VehicleController;
+import model.Vehicle;
+import model.VehicleStatus;
+import model.VehicleType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Benchmark for concurrent reads on VehicleController.
+ * Runs ID lookups and available counts from 1 up to the number of cores
+ * reader threads, with and without a background writer changing statuses
+ * about ten thousand times a second, and reports total read throughput.
+ *
+ * Run with: java -cp bin benchmark.ConcurrentReadBenchmark
+ */
+public class ConcurrentReadBenchmark {
+
+    private static final int FLEET_SIZE = 100_000;
+    private static final long RUN_MILLIS = 2_000;
+
+    public static void main(String[] args) throws InterruptedException {
+        VehicleController controller = createFleet(FLEET_SIZE);
+        String[] ids = pickIds(controller.getAllVehicles(), 1 << 16);
+        int cores = Runtime.getRuntime().availableProcessors();
+
+        // Warm up the read path before measuring
+        run(controller, ids, cores, false);
+
+        System.out.printf("%-8s %20s %20s%n", "Threads", "Reads only (Mops/s)", "With writer (Mops/s)");
+        for (int threads = 1; threads <= cores; threads *= 2) {
+            double readsOnly = run(controller, ids, threads, false);
+            double withWriter = run(controller, ids, threads, true);
+            System.out.printf("%-8d %20.2f %20.2f%n", threads, readsOnly, withWriter);
+        }
+    }
+
+    private static VehicleController createFleet(int fleetSize) {
+        VehicleController controller = new VehicleController();
+        VehicleType[] types = VehicleType.values();
+        for (int i = controller.getAllVehicles().size(); i < fleetSize; i++) {
+            controller.addVehicle("Vehicle " + i, types[i % types.length], 20 + (i % 100));
+        }
+        return controller;
+    }
+
+    private static String[] pickIds(List<Vehicle> fleet, int count) {
+        Random random = new Random(7);
+        String[] ids = new String[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = fleet.get(random.nextInt(fleet.size())).getVehicleId();
+        }
+        return ids;
+    }
+
+    /**
+     * Run reader threads for a fixed time.
+     * @return Reads per second across all readers, in millions
+     */
+    private static double run(VehicleController controller, String[] ids, int threads, boolean withWriter)
+            throws InterruptedException {
+        AtomicBoolean running = new AtomicBoolean(true);
+        LongAdder reads = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+
+        for (int t = 0; t < threads; t++) {
+            int seed = t;
+            workers.add(new Thread(() -> {
+                awaitQuietly(start);
+                int mask = ids.length - 1;
+                int i = seed * 7919;
+                long local = 0;
+                long sink = 0;
+                while (running.get()) {
+                    Vehicle vehicle = controller.getVehicleById(ids[i++ & mask]);
+                    sink += vehicle == null ? 0 : vehicle.getVehicleName().length();
+                    sink += controller.getAvailableCount();
+                    local += 2;
+                }
+                reads.add(local + (sink == 42 ? 1 : 0));
+            }));
+        }
+        if (withWriter) {
+            workers.add(new Thread(() -> {
+                awaitQuietly(start);
+                Random random = new Random(11);
+                while (running.get()) {
+                    String id = ids[random.nextInt(ids.length)];
+                    controller.updateVehicleStatus(id, VehicleStatus.RENTED);
+                    controller.updateVehicleStatus(id, VehicleStatus.AVAILABLE);
+                    LockSupport.parkNanos(200_000);
+                }
+            }));
+        }
+
+        for (Thread worker : workers) {
+            worker.start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        Thread.sleep(RUN_MILLIS);
+        running.set(false);
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        double seconds = (System.nanoTime() - begin) / 1e9;
+        return reads.sum() / seconds / 1e6;
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package benchmark;
+
+import controller.ColumnarFleetStore;
+import controller.VehicleController;
+import model.Vehicle;
+import model.VehicleStatus;
+import model.VehicleType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Memory footprint of a fleet held as List<Vehicle> versus ColumnarFleetStore,
+ * and of a VehicleController with all its indexes in object mode versus one
+ * running on a ColumnarFleetStore. Vehicles cycle through a few hundred model names, and every name is a
+ * fresh String as it would be after parsing an import file. Heap use is
+ * measured after a full GC with only the fleet under test reachable.
+ *
+ * Run with: java -Xmx4g -cp bin benchmark.FleetMemoryBenchmark [fleetSize]
+ */
+public class FleetMemoryBenchmark {
+
+    private static final int MODEL_NAMES = 300;
+
+    public static void main(String[] args) {
+        int fleetSize = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        long baseline = usedHeap();
+        List<Vehicle> list = createList(fleetSize);
+        long listBytes = usedHeap() - baseline;
+        int listSize = list.size();
+        list = null;
+
+        baseline = usedHeap();
+        ColumnarFleetStore store = createStore(fleetSize);
+        long storeBytes = usedHeap() - baseline;
+        int storeSize = store.size();
+        store = null;
+
+        baseline = usedHeap();
+        VehicleController objects = createController(new VehicleController(), fleetSize);
+        long objectsBytes = usedHeap() - baseline;
+        int objectsSize = objects.getVehicleCount();
+        objects = null;
+
+        baseline = usedHeap();
+        VehicleController columns = createController(new VehicleController(new ColumnarFleetStore(fleetSize)),
+            fleetSize);
+        long columnsBytes = usedHeap() - baseline;
+        int columnsSize = columns.getVehicleCount();
+
+        System.out.printf("%-28s %12s %14s %16s%n", "Store", "Vehicles", "Heap (MB)", "Bytes/vehicle");
+        print("List<Vehicle>", listSize, listBytes);
+        print("ColumnarFleetStore", storeSize, storeBytes);
+        print("VehicleController", objectsSize, objectsBytes);
+        print("VehicleController (columns)", columnsSize, columnsBytes);
+        System.out.printf("Columnar store uses %.1fx less heap%n", (double) listBytes / storeBytes);
+        System.out.printf("Columnar controller uses %.1fx less heap%n", (double) objectsBytes / columnsBytes);
+    }
+
+    private static List<Vehicle> createList(int fleetSize) {
+        List<Vehicle> vehicles = new ArrayList<>(fleetSize);
+        for (int i = 1; i <= fleetSize; i++) {
+            vehicles.add(createVehicle(i));
+        }
+        return vehicles;
+    }
+
+    private static ColumnarFleetStore createStore(int fleetSize) {
+        ColumnarFleetStore store = new ColumnarFleetStore(fleetSize);
+        for (int i = 1; i <= fleetSize; i++) {
+            store.add(createVehicle(i));
+        }
+        return store;
+    }
+
+    private static VehicleController createController(VehicleController controller, int fleetSize) {
+        // Batches keep the temporary input list small next to the fleet
+        List<Vehicle> batch = new ArrayList<>();
+        for (int i = 1; i <= fleetSize; i++) {
+            batch.add(createVehicle(i));
+            if (batch.size() == 10_000 || i == fleetSize) {
+                controller.addVehicles(batch);
+                batch.clear();
+            }
+        }
+        return controller;
+    }
+
+    private static Vehicle createVehicle(int number) {
+        VehicleType[] types = VehicleType.values();
+        VehicleStatus[] statuses = VehicleStatus.values();
+        String name = "Model " + (number % MODEL_NAMES);
+        return new Vehicle("V" + (number < 10 ? "00" : number < 100 ? "0" : "") + number, name,
+            types[number % types.length], 20 + (number % 100), statuses[number % statuses.length]);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static void print(String label, int vehicles, long bytes) {
+        System.out.printf("%-28s %12d %14.1f %16.1f%n", label, vehicles, bytes / (1024.0 * 1024.0),
+            (double) bytes / vehicles);
+    }
+}
@@ -0,0 +1,97 @@
+package benchmark;
+
+import controller.RentalController;
+import controller.VehicleController;
+import model.Rental;
+import model.Vehicle;
+import model.VehicleStatus;
+import model.VehicleType;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Aggregations over a large rental history: a copy-and-loop baseline
+ * against sequential and parallel streams over the controller snapshot.
+ * Each aggregation totals the booked value of every rental per customer.
+ *
+ * Run with: java -Xmx2g -cp bin benchmark.RentalStreamBenchmark [rentals]
+ */
+public class RentalStreamBenchmark {
+
+    private static final int CUSTOMERS = 1_000;
+    private static final int FLEET_SIZE = 10_000;
+    private static final int ROUNDS = 10;
+
+    public static void main(String[] args) {
+        int rentalCount = args.length > 0 ? Integer.parseInt(args[0]) : 500_000;
+        RentalController controller = createHistory(rentalCount);
+
+        System.out.printf("%,d rentals, %d cores%n", controller.getTotalRentalCount(),
+            Runtime.getRuntime().availableProcessors());
+        System.out.printf("%-22s %12s%n", "Aggregation", "ms/round");
+        for (int pass = 0; pass < 2; pass++) {
+            // First pass warms up; only the second is reported
+            boolean report = pass == 1;
+            time("copy + loop", report, () -> copyAndLoop(controller));
+            time("stream()", report, () -> aggregate(controller.stream()));
+            time("parallelStream()", report, () -> aggregate(controller.parallelStream()));
+        }
+    }
+
+    private static RentalController createHistory(int rentalCount) {
+        VehicleController vehicles = new VehicleController();
+        List<Vehicle> fleet = new ArrayList<>(FLEET_SIZE);
+        for (int i = 0; i < FLEET_SIZE; i++) {
+            fleet.add(new Vehicle(null, "Vehicle " + i, VehicleType.CAR, 20 + (i % 100), VehicleStatus.AVAILABLE));
+        }
+        vehicles.addVehicles(fleet);
+        // The controller stores numbered copies; rent those
+        List<Vehicle> all = vehicles.getAllVehicles();
+        fleet = all.subList(all.size() - FLEET_SIZE, all.size());
+        RentalController rentals = new RentalController(vehicles);
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 8, 0);
+        for (int i = 0; i < rentalCount; i++) {
+            Rental rental = rentals.rentVehicle("customer" + (i % CUSTOMERS), fleet.get(i % FLEET_SIZE).getVehicleId(),
+                start, start.plusHours(1 + i % 72));
+            // Return everything but each customer's last booking, keeping within the active rental limit
+            if (i < rentalCount - CUSTOMERS) {
+                rentals.returnVehicle(rental.getRentalId());
+            }
+        }
+        return rentals;
+    }
+
+    private static double copyAndLoop(RentalController controller) {
+        double total = 0;
+        Map<String, Double> byCustomer = new java.util.HashMap<>();
+        for (Rental rental : controller.getAllRentals()) {
+            total += rental.getTotalCost();
+            byCustomer.merge(rental.getCustomerUsername(), rental.getTotalCost(), Double::sum);
+        }
+        return total + byCustomer.size();
+    }
+
+    private static double aggregate(Stream<Rental> rentals) {
+        Map<String, Double> byCustomer = rentals
+            .collect(Collectors.groupingByConcurrent(Rental::getCustomerUsername,
+                Collectors.summingDouble(Rental::getTotalCost)));
+        return byCustomer.values().stream().mapToDouble(Double::doubleValue).sum() + byCustomer.size();
+    }
+
+    private static void time(String label, boolean report, java.util.function.DoubleSupplier aggregation) {
+        double sink = 0;
+        long begin = System.nanoTime();
+        for (int round = 0; round < ROUNDS; round++) {
+            sink += aggregation.getAsDouble();
+        }
+        long elapsed = System.nanoTime() - begin;
+        if (report) {
+            System.out.printf("%-22s %12.1f   (checksum %.0f)%n", label, elapsed / 1e6 / ROUNDS, sink / ROUNDS);
+        }
+    }
+}
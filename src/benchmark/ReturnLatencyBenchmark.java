@@ -0,0 +1,117 @@
+package benchmark;
+
+import controller.RentalController;
+import controller.VehicleController;
+import model.Rental;
+import model.Vehicle;
+import model.VehicleStatus;
+import model.VehicleType;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Benchmark for returning a vehicle as the rental history grows.
+ * A small fleet is rented and returned over and over to build up history,
+ * then at each size a batch of fresh rentals is returned and timed. The
+ * linear column repeats the lookup the way it was done before rentals were
+ * indexed, for comparison.
+ *
+ * Run with: java -Xmx4g -cp bin benchmark.ReturnLatencyBenchmark [maxRentals]
+ * The default stops at 1M rentals; pass 10000000 for the full range.
+ */
+public class ReturnLatencyBenchmark {
+
+    private static final int FLEET_SIZE = 1_000;
+    private static final int RETURNS = 1_000;
+
+    // Keeps the JIT from discarding lookup results
+    private static long sink;
+
+    public static void main(String[] args) {
+        long maxRentals = args.length > 0 ? Long.parseLong(args[0]) : 1_000_000;
+
+        // Warm up on a separate controller so the measured history starts empty
+        VehicleController warmupVehicles = new VehicleController();
+        List<Vehicle> warmupFleet = createFleet(warmupVehicles);
+        RentalController warmup = new RentalController(warmupVehicles);
+        for (int i = 0; i < 20; i++) {
+            List<Rental> open = rentAll(warmup, warmupFleet);
+            timeLinear(warmup, open);
+            timeReturns(warmup, open);
+        }
+
+        VehicleController vehicles = new VehicleController();
+        List<Vehicle> fleet = createFleet(vehicles);
+        RentalController rentals = new RentalController(vehicles);
+
+        System.out.printf("%-12s %18s %18s%n", "History", "Return (ns/op)", "Linear (ns/op)");
+        for (long history = 1_000; history <= maxRentals; history *= 10) {
+            while (rentals.getTotalRentalCount() < history - RETURNS) {
+                for (Rental rental : rentAll(rentals, fleet)) {
+                    rentals.returnVehicle(rental.getRentalId());
+                }
+            }
+            List<Rental> open = rentAll(rentals, fleet);
+            double linear = timeLinear(rentals, open);
+            double indexed = timeReturns(rentals, open);
+            System.out.printf("%-12d %18.1f %18.1f%n", rentals.getTotalRentalCount(), indexed, linear);
+        }
+
+        if (sink == 42) {
+            System.out.println();
+        }
+    }
+
+    private static List<Vehicle> createFleet(VehicleController vehicles) {
+        List<Vehicle> fleet = new ArrayList<>(FLEET_SIZE);
+        for (int i = 0; i < FLEET_SIZE; i++) {
+            fleet.add(new Vehicle(null, "Vehicle " + i, VehicleType.CAR, 20 + (i % 100), VehicleStatus.AVAILABLE));
+        }
+        vehicles.addVehicles(fleet);
+        // The controller stores numbered copies; rent those
+        List<Vehicle> all = vehicles.getAllVehicles();
+        fleet = all.subList(all.size() - FLEET_SIZE, all.size());
+        return fleet;
+    }
+
+    private static List<Rental> rentAll(RentalController rentals, List<Vehicle> fleet) {
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 8, 0);
+        List<Rental> open = new ArrayList<>(fleet.size());
+        // One customer per vehicle, so the active rental limit never kicks in
+        for (int i = 0; i < fleet.size(); i++) {
+            open.add(rentals.rentVehicle("customer" + i, fleet.get(i).getVehicleId(), start, start.plusHours(24)));
+        }
+        return open;
+    }
+
+    private static double timeReturns(RentalController rentals, List<Rental> open) {
+        long begin = System.nanoTime();
+        for (Rental rental : open) {
+            if (rentals.returnVehicle(rental.getRentalId())) {
+                sink++;
+            }
+        }
+        return (System.nanoTime() - begin) / (double) open.size();
+    }
+
+    /**
+     * Scan the history for each rental, matching the lookup cost before rentals were indexed.
+     * Only a sample is scanned on long histories so the run finishes in reasonable time.
+     */
+    private static double timeLinear(RentalController rentals, List<Rental> open) {
+        int lookups = (int) Math.max(10, Math.min(open.size(), 20_000_000L / rentals.getTotalRentalCount()));
+        long begin = System.nanoTime();
+        for (int i = 0; i < lookups; i++) {
+            long number = open.get(i).getRentalNumber();
+            for (Rental rental : rentals.getSnapshot()) {
+                if (rental.getRentalNumber() == number) {
+                    sink += rental.getVehicleNumber();
+                    break;
+                }
+            }
+        }
+        return (System.nanoTime() - begin) / (double) lookups;
+    }
+}
@@ -0,0 +1,95 @@
+package benchmark;
+
+import controller.VehicleController;
+import model.Vehicle;
+import model.VehicleType;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Benchmark for vehicle lookup by ID.
+ * Compares the indexed VehicleController lookup against a linear scan
+ * of the fleet list at fleet sizes from 20 up to 1M vehicles.
+ *
+ * Run with: java -cp bin benchmark.VehicleLookupBenchmark
+ */
+public class VehicleLookupBenchmark {
+
+    private static final int[] FLEET_SIZES = {20, 1_000, 10_000, 100_000, 1_000_000};
+    private static final int LOOKUPS = 200_000;
+
+    // Keeps the JIT from discarding lookup results
+    private static long sink;
+
+    public static void main(String[] args) {
+        System.out.printf("%-10s %18s %18s%n", "Fleet", "Indexed (ns/op)", "Linear (ns/op)");
+
+        for (int fleetSize : FLEET_SIZES) {
+            VehicleController controller = createFleet(fleetSize);
+            List<Vehicle> fleet = controller.getAllVehicles();
+            String[] ids = pickIds(fleet, LOOKUPS);
+
+            // Warm up both paths before measuring
+            runIndexed(controller, ids);
+            runLinear(fleet, ids, Math.min(ids.length, 2_000));
+
+            double indexed = runIndexed(controller, ids);
+            // Cap linear lookups on large fleets so the run finishes in reasonable time
+            int linearLookups = (int) Math.max(100, Math.min(ids.length, 50_000_000L / fleetSize));
+            double linear = runLinear(fleet, ids, linearLookups);
+
+            System.out.printf("%-10d %18.1f %18.1f%n", fleetSize, indexed, linear);
+        }
+
+        if (sink == 42) {
+            System.out.println();
+        }
+    }
+
+    /**
+     * Build a controller holding the requested number of vehicles.
+     */
+    private static VehicleController createFleet(int fleetSize) {
+        VehicleController controller = new VehicleController();
+        VehicleType[] types = VehicleType.values();
+        for (int i = controller.getAllVehicles().size(); i < fleetSize; i++) {
+            controller.addVehicle("Vehicle " + i, types[i % types.length], 20 + (i % 100));
+        }
+        return controller;
+    }
+
+    private static String[] pickIds(List<Vehicle> fleet, int count) {
+        Random random = new Random(7);
+        String[] ids = new String[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = fleet.get(random.nextInt(fleet.size())).getVehicleId();
+        }
+        return ids;
+    }
+
+    private static double runIndexed(VehicleController controller, String[] ids) {
+        long start = System.nanoTime();
+        for (String id : ids) {
+            sink += controller.getVehicleById(id).getVehicleName().length();
+        }
+        return (System.nanoTime() - start) / (double) ids.length;
+    }
+
+    /**
+     * Linear scan over the fleet, matching the lookup cost before vehicles were indexed.
+     */
+    private static double runLinear(List<Vehicle> fleet, String[] ids, int lookups) {
+        long start = System.nanoTime();
+        for (int i = 0; i < lookups; i++) {
+            String id = ids[i];
+            for (Vehicle vehicle : fleet) {
+                if (vehicle.getVehicleId().equals(id)) {
+                    sink += vehicle.getVehicleName().length();
+                    break;
+                }
+            }
+        }
+        return (System.nanoTime() - start) / (double) lookups;
+    }
+}
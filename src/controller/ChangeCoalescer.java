@@ -0,0 +1,215 @@
+package controller;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Merges vehicle and rental change events and delivers them in batches.
+ * Register it as a listener on both controllers. The first event after a
+ * flush schedules the next one, after an optional window, on the delivery
+ * executor (e.g. SwingUtilities::invokeLater). Everything arriving before
+ * that flush runs is merged: repeated changes to one vehicle or rental
+ * collapse into a single change, and a reset swallows everything before it.
+ * The target therefore gets at most one call per window.
+ */
+public class ChangeCoalescer implements VehicleController.VehicleDataListener,
+        RentalController.RentalDataListener {
+
+    /**
+     * Receives merged changes on the delivery executor
+     */
+    public interface Target {
+        void applyChanges(List<VehicleChangeEvent> vehicleEvents, List<RentalChangeEvent> rentalEvents);
+    }
+
+    // Shared timer thread for delayed flushes; flushes themselves run on the delivery executor
+    private static final ScheduledExecutorService TIMER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "change-coalescer-timer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Executor deliveryExecutor;
+    private final long windowMillis;
+    private final Target target;
+
+    // Guarded by this
+    private final PendingChanges<VehicleChangeEvent.Field> vehicleChanges;
+    private final PendingChanges<RentalChangeEvent.Field> rentalChanges;
+    private boolean flushScheduled;
+
+    /**
+     * @param deliveryExecutor Executor the target is called on
+     * @param windowMillis How long to keep collecting after the first event; 0 flushes on the next task
+     * @param target Receiver of the merged changes
+     */
+    public ChangeCoalescer(Executor deliveryExecutor, long windowMillis, Target target) {
+        this.deliveryExecutor = deliveryExecutor;
+        this.windowMillis = windowMillis;
+        this.target = target;
+        this.vehicleChanges = new PendingChanges<>(VehicleChangeEvent.Field.class);
+        this.rentalChanges = new PendingChanges<>(RentalChangeEvent.Field.class);
+    }
+
+    @Override
+    public void onVehicleDataChanged(VehicleChangeEvent event) {
+        synchronized (this) {
+            if (event.getKind() == VehicleChangeEvent.Kind.RESET) {
+                vehicleChanges.reset();
+            } else {
+                Change change = event.getKind() == VehicleChangeEvent.Kind.ADDED ? Change.ADDED
+                    : event.getKind() == VehicleChangeEvent.Kind.REMOVED ? Change.REMOVED : Change.UPDATED;
+                for (String vehicleId : event.getVehicleIds()) {
+                    vehicleChanges.merge(vehicleId, change, event.getChangedFields());
+                }
+            }
+        }
+        scheduleFlush();
+    }
+
+    @Override
+    public void onRentalDataChanged(RentalChangeEvent event) {
+        synchronized (this) {
+            if (event.getKind() == RentalChangeEvent.Kind.RESET) {
+                rentalChanges.reset();
+            } else {
+                Change change = event.getKind() == RentalChangeEvent.Kind.ADDED ? Change.ADDED : Change.UPDATED;
+                for (String rentalId : event.getRentalIds()) {
+                    rentalChanges.merge(rentalId, change, event.getChangedFields());
+                }
+            }
+        }
+        scheduleFlush();
+    }
+
+    private void scheduleFlush() {
+        synchronized (this) {
+            if (flushScheduled) {
+                return;
+            }
+            flushScheduled = true;
+        }
+        if (windowMillis <= 0) {
+            deliveryExecutor.execute(this::flush);
+        } else {
+            TIMER.schedule(() -> deliveryExecutor.execute(this::flush), windowMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void flush() {
+        List<VehicleChangeEvent> vehicleEvents = new ArrayList<>();
+        List<RentalChangeEvent> rentalEvents = new ArrayList<>();
+        synchronized (this) {
+            flushScheduled = false;
+            if (vehicleChanges.reset) {
+                vehicleEvents.add(VehicleChangeEvent.reset());
+            } else {
+                vehicleChanges.forEachGroup((change, ids, fields) -> vehicleEvents.add(new VehicleChangeEvent(
+                    change == Change.ADDED ? VehicleChangeEvent.Kind.ADDED
+                        : change == Change.REMOVED ? VehicleChangeEvent.Kind.REMOVED : VehicleChangeEvent.Kind.UPDATED,
+                    ids, fields)));
+            }
+            if (rentalChanges.reset) {
+                rentalEvents.add(RentalChangeEvent.reset());
+            } else {
+                rentalChanges.forEachGroup((change, ids, fields) -> rentalEvents.add(new RentalChangeEvent(
+                    change == Change.ADDED ? RentalChangeEvent.Kind.ADDED : RentalChangeEvent.Kind.UPDATED,
+                    ids, fields)));
+            }
+            vehicleChanges.clear();
+            rentalChanges.clear();
+        }
+        if (!vehicleEvents.isEmpty() || !rentalEvents.isEmpty()) {
+            target.applyChanges(vehicleEvents, rentalEvents);
+        }
+    }
+
+    private enum Change {
+        ADDED, UPDATED, REMOVED
+    }
+
+    private interface GroupConsumer<F extends Enum<F>> {
+        void accept(Change change, List<String> ids, Set<F> fields);
+    }
+
+    /**
+     * Net change per entity since the last flush
+     */
+    private static class PendingChanges<F extends Enum<F>> {
+        private final Class<F> fieldType;
+        private final Map<String, Change> changes = new LinkedHashMap<>();
+        private final Map<String, EnumSet<F>> fields = new LinkedHashMap<>();
+        boolean reset;
+
+        PendingChanges(Class<F> fieldType) {
+            this.fieldType = fieldType;
+        }
+
+        void merge(String id, Change change, Set<F> changedFields) {
+            if (reset) {
+                // A reload is already pending and will pick this change up
+                return;
+            }
+            Change previous = changes.get(id);
+            if (previous == Change.ADDED && change == Change.REMOVED) {
+                // Never shown, nothing to do
+                changes.remove(id);
+                fields.remove(id);
+                return;
+            }
+            Change merged;
+            if (previous == Change.ADDED) {
+                merged = Change.ADDED;
+            } else if (previous == Change.REMOVED && change == Change.ADDED) {
+                merged = Change.UPDATED;
+                changedFields = EnumSet.allOf(fieldType);
+            } else {
+                merged = change;
+            }
+            changes.put(id, merged);
+            EnumSet<F> all = fields.computeIfAbsent(id, k -> EnumSet.noneOf(fieldType));
+            all.addAll(changedFields);
+        }
+
+        void reset() {
+            clear();
+            reset = true;
+        }
+
+        void clear() {
+            changes.clear();
+            fields.clear();
+            reset = false;
+        }
+
+        /**
+         * Group entities by change and, for updates, by changed fields.
+         */
+        void forEachGroup(GroupConsumer<F> consumer) {
+            Map<Change, List<String>> simple = new LinkedHashMap<>();
+            Map<Set<F>, List<String>> updates = new LinkedHashMap<>();
+            for (Map.Entry<String, Change> entry : changes.entrySet()) {
+                if (entry.getValue() == Change.UPDATED) {
+                    updates.computeIfAbsent(fields.get(entry.getKey()), k -> new ArrayList<>()).add(entry.getKey());
+                } else {
+                    simple.computeIfAbsent(entry.getValue(), k -> new ArrayList<>()).add(entry.getKey());
+                }
+            }
+            for (Map.Entry<Change, List<String>> entry : simple.entrySet()) {
+                Set<F> groupFields = entry.getKey() == Change.ADDED ? EnumSet.allOf(fieldType) : EnumSet.noneOf(fieldType);
+                consumer.accept(entry.getKey(), entry.getValue(), groupFields);
+            }
+            for (Map.Entry<Set<F>, List<String>> entry : updates.entrySet()) {
+                consumer.accept(Change.UPDATED, entry.getValue(), entry.getKey());
+            }
+        }
+    }
+}
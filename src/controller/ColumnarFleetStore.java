@@ -0,0 +1,596 @@
+package controller;
+
+import model.Vehicle;
+import model.VehicleStatus;
+import model.VehicleType;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntPredicate;
+
+/**
+ * Struct-of-arrays fleet store for very large fleets.
+ * Each column is a primitive array: vehicle numbers as int, prices as
+ * double, status and type as byte codes, and names as int codes into a
+ * dictionary, since a fleet repeats a few hundred model names over
+ * millions of units. A vehicle costs about 18 bytes plus its share of the
+ * dictionary and a few bits in the status and type bitsets, instead of a
+ * Vehicle object, two strings and an entry in every controller index.
+ * Vehicle objects are created on demand by get() and findById(); they are
+ * detached views, so changes go through setStatus() and setPrice(), or
+ * through the VehicleController running on the store.
+ * <p>
+ * Rows are kept in ascending ID order, which the binary searches rely on.
+ * Removing a vehicle only clears its row from the bitsets; the columns are
+ * compacted once more than half the rows are removed.
+ * All methods are synchronized.
+ */
+public final class ColumnarFleetStore {
+    private static final VehicleStatus[] STATUSES = VehicleStatus.values();
+    private static final VehicleType[] TYPES = VehicleType.values();
+
+    // Rows in use, including removed ones, and live vehicles
+    private int rows;
+    private int size;
+    // Highest number added since the store was created or cleared
+    private int lastNumber;
+    private int[] ids;
+    private int[] nameCodes;
+    private byte[] types;
+    private byte[] statuses;
+    private double[] prices;
+
+    // Row bitsets: live rows, and live rows by status and by type
+    private final BitSet live;
+    private final BitSet[] rowsByStatus;
+    private final BitSet[] rowsByType;
+
+    // Name dictionary: code -> name and name -> code
+    private String[] names;
+    private int nameCount;
+    private final Map<String, Integer> codesByName;
+
+    /** Order of rows, compared without boxing */
+    private interface RowOrder {
+        int compare(int row, int other);
+    }
+
+    public ColumnarFleetStore() {
+        this(1024);
+    }
+
+    /**
+     * @param expectedSize Number of vehicles to allocate room for up front
+     */
+    public ColumnarFleetStore(int expectedSize) {
+        int capacity = Math.max(expectedSize, 16);
+        this.ids = new int[capacity];
+        this.nameCodes = new int[capacity];
+        this.types = new byte[capacity];
+        this.statuses = new byte[capacity];
+        this.prices = new double[capacity];
+        this.live = new BitSet();
+        this.rowsByStatus = new BitSet[STATUSES.length];
+        for (int i = 0; i < rowsByStatus.length; i++) {
+            rowsByStatus[i] = new BitSet();
+        }
+        this.rowsByType = new BitSet[TYPES.length];
+        for (int i = 0; i < rowsByType.length; i++) {
+            rowsByType[i] = new BitSet();
+        }
+        this.names = new String[64];
+        this.codesByName = new HashMap<>();
+    }
+
+    /**
+     * Build a store from CSV text in the format accepted by
+     * VehicleController.importVehicles(). Vehicles are numbered from 1.
+     * @param csv CSV source; not closed by this method
+     * @return Store holding every vehicle in the file
+     * @throws IOException if the source cannot be read
+     * @throws IllegalArgumentException if a line is malformed; the message names the line
+     */
+    public static ColumnarFleetStore load(Reader csv) throws IOException {
+        VehicleCsvReader reader = new VehicleCsvReader(csv);
+        ColumnarFleetStore store = new ColumnarFleetStore();
+        for (Vehicle vehicle = reader.next(); vehicle != null; vehicle = reader.next()) {
+            store.append(store.rows + 1, vehicle.getVehicleName(), vehicle.getVehicleType(),
+                vehicle.getPricePerDay(), vehicle.getStatus());
+        }
+        return store;
+    }
+
+    /**
+     * Add a vehicle. Its ID must be greater than every ID already stored.
+     * @param vehicle Vehicle to copy into the columns
+     * @throws IllegalArgumentException if the vehicle has no number, or it is out of order or too large
+     */
+    public synchronized void add(Vehicle vehicle) {
+        append(toInt(vehicle.getVehicleNumber()), vehicle.getVehicleName(), vehicle.getVehicleType(),
+            vehicle.getPricePerDay(), vehicle.getStatus());
+    }
+
+    /**
+     * Add many vehicles, growing the columns once.
+     * @param vehicles Vehicles in ascending ID order
+     */
+    public synchronized void addAll(Collection<Vehicle> vehicles) {
+        ensureCapacity(rows + vehicles.size());
+        for (Vehicle vehicle : vehicles) {
+            add(vehicle);
+        }
+    }
+
+    private synchronized void append(int vehicleNumber, String name, VehicleType type, double price,
+                                     VehicleStatus status) {
+        if (vehicleNumber <= lastNumber) {
+            throw new IllegalArgumentException("Vehicle IDs must be added in ascending order");
+        }
+        ensureCapacity(rows + 1);
+        ids[rows] = vehicleNumber;
+        nameCodes[rows] = encodeName(name);
+        types[rows] = (byte) type.ordinal();
+        statuses[rows] = (byte) status.ordinal();
+        prices[rows] = price;
+        live.set(rows);
+        rowsByStatus[status.ordinal()].set(rows);
+        rowsByType[type.ordinal()].set(rows);
+        rows++;
+        size++;
+        lastNumber = vehicleNumber;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Create a Vehicle for a row.
+     * @param row Row index, 0 to size() - 1 while nothing has been removed
+     * @return Detached copy of the row, or null if its vehicle was removed
+     */
+    public synchronized Vehicle get(int row) {
+        if (row < 0 || row >= rows) {
+            throw new IndexOutOfBoundsException("Row " + row + ", size " + rows);
+        }
+        return live.get(row) ? view(row) : null;
+    }
+
+    /**
+     * Find a vehicle by ID with a binary search over the ID column.
+     * @param vehicleId ID such as "V007"
+     * @return Detached copy of the vehicle, or null if it is not stored
+     */
+    public synchronized Vehicle findById(String vehicleId) {
+        return findById(Vehicle.parseId(vehicleId));
+    }
+
+    synchronized Vehicle findById(long vehicleNumber) {
+        int row = rowOf(vehicleNumber);
+        return row < 0 ? null : view(row);
+    }
+
+    /**
+     * Change a vehicle's status.
+     * @return true if the vehicle exists
+     */
+    public synchronized boolean setStatus(String vehicleId, VehicleStatus status) {
+        return setStatus(Vehicle.parseId(vehicleId), status);
+    }
+
+    synchronized boolean setStatus(long vehicleNumber, VehicleStatus status) {
+        int row = rowOf(vehicleNumber);
+        if (row < 0) {
+            return false;
+        }
+        rowsByStatus[statuses[row]].clear(row);
+        statuses[row] = (byte) status.ordinal();
+        rowsByStatus[statuses[row]].set(row);
+        return true;
+    }
+
+    /**
+     * Change a vehicle's price per day.
+     * @return true if the vehicle exists
+     */
+    public synchronized boolean setPrice(String vehicleId, double pricePerDay) {
+        int row = rowOf(Vehicle.parseId(vehicleId));
+        if (row < 0) {
+            return false;
+        }
+        prices[row] = pricePerDay;
+        return true;
+    }
+
+    /**
+     * Change a vehicle's name, type and price, keeping its status.
+     * @return true if the vehicle exists
+     */
+    synchronized boolean update(long vehicleNumber, String name, VehicleType type, double pricePerDay) {
+        int row = rowOf(vehicleNumber);
+        if (row < 0) {
+            return false;
+        }
+        nameCodes[row] = encodeName(name);
+        rowsByType[types[row]].clear(row);
+        types[row] = (byte) type.ordinal();
+        rowsByType[types[row]].set(row);
+        prices[row] = pricePerDay;
+        return true;
+    }
+
+    /**
+     * Remove a vehicle. Its row is compacted away later.
+     * @return Detached copy of the removed vehicle, or null if it was not stored
+     */
+    synchronized Vehicle remove(long vehicleNumber) {
+        int row = rowOf(vehicleNumber);
+        if (row < 0) {
+            return null;
+        }
+        Vehicle removed = view(row);
+        live.clear(row);
+        rowsByStatus[statuses[row]].clear(row);
+        rowsByType[types[row]].clear(row);
+        size--;
+        if (rows > 64 && size < rows / 2) {
+            compact();
+        }
+        return removed;
+    }
+
+    /**
+     * Remove every vehicle and name.
+     */
+    synchronized void clear() {
+        rows = 0;
+        size = 0;
+        lastNumber = 0;
+        live.clear();
+        for (BitSet bits : rowsByStatus) {
+            bits.clear();
+        }
+        for (BitSet bits : rowsByType) {
+            bits.clear();
+        }
+        Arrays.fill(names, 0, nameCount, null);
+        nameCount = 0;
+        codesByName.clear();
+    }
+
+    /**
+     * @return Highest vehicle number added, including removed vehicles, or 0
+     */
+    synchronized long lastVehicleNumber() {
+        return lastNumber;
+    }
+
+    /**
+     * Count vehicles using the status and type bitsets.
+     * @param status Status to include, or null for any status
+     * @param type Type to include, or null for any type
+     * @return Number of matching vehicles
+     */
+    public synchronized int count(VehicleStatus status, VehicleType type) {
+        if (status == null && type == null) {
+            return size;
+        }
+        if (status == null || type == null) {
+            return (status != null ? rowsByStatus[status.ordinal()] : rowsByType[type.ordinal()]).cardinality();
+        }
+        BitSet mask = (BitSet) rowsByStatus[status.ordinal()].clone();
+        mask.and(rowsByType[type.ordinal()]);
+        return mask.cardinality();
+    }
+
+    /**
+     * @return Number of distinct vehicle names in the dictionary
+     */
+    public synchronized int getDistinctNameCount() {
+        return nameCount;
+    }
+
+    /**
+     * Copy the live vehicles into a new store.
+     * @return Store with the same vehicles and numbers
+     */
+    synchronized ColumnarFleetStore copy() {
+        ColumnarFleetStore copy = new ColumnarFleetStore(size);
+        for (int row = live.nextSetBit(0); row >= 0; row = live.nextSetBit(row + 1)) {
+            copy.append(ids[row], names[nameCodes[row]], TYPES[types[row]], prices[row], STATUSES[statuses[row]]);
+        }
+        return copy;
+    }
+
+    /**
+     * Get the vehicles after a vehicle number, in ID order.
+     * @param afterNumber Number of the last vehicle already seen, or 0
+     * @param limit Maximum number of vehicles to return
+     * @return Views of up to limit vehicles
+     */
+    synchronized List<Vehicle> page(long afterNumber, int limit) {
+        int from = afterNumber > Integer.MAX_VALUE ? rows : firstRowAfter((int) Math.max(afterNumber, 0));
+        List<Vehicle> page = new ArrayList<>(Math.min(limit, size));
+        for (int row = live.nextSetBit(from); row >= 0 && page.size() < limit; row = live.nextSetBit(row + 1)) {
+            page.add(view(row));
+        }
+        return page;
+    }
+
+    /**
+     * Find vehicles matching a combined filter, in ID order.
+     * Status and type come from the row bitsets; the name is matched against
+     * the dictionary once and then by code, so the name column is never decoded.
+     * @param statusFilter Statuses to include, or null for any status
+     * @param type Type to include, or null for any type
+     * @param minPrice Lowest price per day, inclusive
+     * @param maxPrice Highest price per day, inclusive
+     * @param nameContains Text the name must contain (case-insensitive), or null
+     * @param limit Maximum number of vehicles to return
+     * @return Views of the matching vehicles
+     */
+    synchronized List<Vehicle> select(Collection<VehicleStatus> statusFilter, VehicleType type,
+                                      double minPrice, double maxPrice, String nameContains, int limit) {
+        BitSet mask = mask(statusFilter, type);
+        boolean[] nameMatches = nameContains == null ? null : namesContaining(nameContains.toLowerCase());
+        List<Vehicle> results = new ArrayList<>();
+        for (int row = mask.nextSetBit(0); row >= 0 && results.size() < limit; row = mask.nextSetBit(row + 1)) {
+            if (prices[row] >= minPrice && prices[row] <= maxPrice
+                    && (nameMatches == null || nameMatches[nameCodes[row]])) {
+                results.add(view(row));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Find vehicles within a price range, cheapest first, vehicle ID breaking ties.
+     * @param afterPrice Price of the last vehicle on the previous page
+     * @param afterNumber Number of the last vehicle on the previous page, or 0 for the first page
+     * @return Views of up to limit vehicles
+     */
+    synchronized List<Vehicle> priceRange(double minPrice, double maxPrice, VehicleType type, VehicleStatus status,
+                                          double afterPrice, long afterNumber, int limit) {
+        BitSet mask = mask(status == null ? null : List.of(status), type);
+        int[] rowsFound = smallest(mask, row -> prices[row] >= minPrice && prices[row] <= maxPrice
+                && (afterNumber == 0 || prices[row] > afterPrice
+                    || (prices[row] == afterPrice && ids[row] > afterNumber)),
+            this::compareByPrice, limit);
+        return views(rowsFound, rowsFound.length);
+    }
+
+    /**
+     * Suggest vehicles for a prefix of the name, of a later word in the name,
+     * or of the type, ranked like VehicleSuggestionTrie: available first,
+     * then under maintenance, then cheapest. Each status group is scanned
+     * only if the better ones did not fill the limit.
+     * @param prefix Trimmed prefix
+     * @param limit Maximum number of suggestions
+     * @return Views of the best suggestions
+     */
+    synchronized List<Vehicle> suggest(String prefix, int limit) {
+        String key = prefix.toLowerCase();
+        boolean[] nameMatches = new boolean[nameCount];
+        for (int code = 0; code < nameCount; code++) {
+            String name = names[code].toLowerCase().trim();
+            nameMatches[code] = !name.isEmpty() && (name.startsWith(key) || name.contains(" " + key));
+        }
+        boolean[] typeMatches = new boolean[TYPES.length];
+        for (VehicleType type : TYPES) {
+            typeMatches[type.ordinal()] = type.getDisplayName().toLowerCase().startsWith(key);
+        }
+        IntPredicate matches = row -> nameMatches[nameCodes[row]] || typeMatches[types[row]];
+        BitSet rest = (BitSet) live.clone();
+        List<Vehicle> suggestions = new ArrayList<>();
+        for (VehicleStatus status : List.of(VehicleStatus.AVAILABLE, VehicleStatus.UNDER_MAINTENANCE)) {
+            rest.andNot(rowsByStatus[status.ordinal()]);
+            int[] best = smallest(rowsByStatus[status.ordinal()], matches, this::compareByPrice,
+                limit - suggestions.size());
+            suggestions.addAll(views(best, best.length));
+        }
+        int[] best = smallest(rest, matches, this::compareByPrice, limit - suggestions.size());
+        suggestions.addAll(views(best, best.length));
+        return suggestions;
+    }
+
+    /**
+     * Add the store's vehicles to a status by type count table.
+     * @param counts Counts indexed by status ordinal, then type ordinal
+     */
+    synchronized void countInto(int[][] counts) {
+        for (int row = live.nextSetBit(0); row >= 0; row = live.nextSetBit(row + 1)) {
+            counts[statuses[row]][types[row]]++;
+        }
+    }
+
+    private Vehicle view(int row) {
+        return new Vehicle(Vehicle.formatId(ids[row]), names[nameCodes[row]], TYPES[types[row]],
+            prices[row], STATUSES[statuses[row]]);
+    }
+
+    private BitSet mask(Collection<VehicleStatus> statusFilter, VehicleType type) {
+        BitSet mask;
+        if (statusFilter == null) {
+            mask = (BitSet) live.clone();
+        } else {
+            mask = new BitSet();
+            for (VehicleStatus status : statusFilter) {
+                mask.or(rowsByStatus[status.ordinal()]);
+            }
+        }
+        if (type != null) {
+            mask.and(rowsByType[type.ordinal()]);
+        }
+        return mask;
+    }
+
+    private List<Vehicle> views(int[] rowList, int count) {
+        List<Vehicle> results = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            results.add(view(rowList[i]));
+        }
+        return results;
+    }
+
+    private int compareByPrice(int row, int other) {
+        int result = Double.compare(prices[row], prices[other]);
+        return result != 0 ? result : Integer.compare(row, other);
+    }
+
+    /**
+     * Find the first limit accepted rows in the given order. A bounded
+     * max-heap holds the best rows so far, so rows that cannot make the
+     * cut are dropped after one comparison.
+     * @return Rows in order
+     */
+    private static int[] smallest(BitSet mask, IntPredicate accept, RowOrder order, int limit) {
+        if (limit <= 0) {
+            return new int[0];
+        }
+        int[] heap = new int[Math.min(limit, 64)];
+        int count = 0;
+        for (int row = mask.nextSetBit(0); row >= 0; row = mask.nextSetBit(row + 1)) {
+            if (!accept.test(row)) {
+                continue;
+            }
+            if (count < limit) {
+                if (count == heap.length) {
+                    heap = Arrays.copyOf(heap, (int) Math.min(limit, 2L * count));
+                }
+                heap[count] = row;
+                siftUp(heap, count++, order);
+            } else if (order.compare(row, heap[0]) < 0) {
+                heap[0] = row;
+                siftDown(heap, count, order);
+            }
+        }
+        // Pop the largest into the back until the heap is sorted
+        for (int end = count - 1; end > 0; end--) {
+            int top = heap[0];
+            heap[0] = heap[end];
+            heap[end] = top;
+            siftDown(heap, end, order);
+        }
+        return Arrays.copyOf(heap, count);
+    }
+
+    private static void siftUp(int[] heap, int index, RowOrder order) {
+        int row = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (order.compare(row, heap[parent]) <= 0) {
+                break;
+            }
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = row;
+    }
+
+    private static void siftDown(int[] heap, int size, RowOrder order) {
+        int row = heap[0];
+        int index = 0;
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && order.compare(heap[child + 1], heap[child]) > 0) {
+                child++;
+            }
+            if (order.compare(heap[child], row) <= 0) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = row;
+    }
+
+    private boolean[] namesContaining(String lowerQuery) {
+        boolean[] matches = new boolean[nameCount];
+        for (int code = 0; code < nameCount; code++) {
+            matches[code] = names[code].toLowerCase().contains(lowerQuery);
+        }
+        return matches;
+    }
+
+    private int rowOf(long vehicleNumber) {
+        if (vehicleNumber <= 0 || vehicleNumber > Integer.MAX_VALUE) {
+            return -1;
+        }
+        int row = Arrays.binarySearch(ids, 0, rows, (int) vehicleNumber);
+        return row < 0 || !live.get(row) ? -1 : row;
+    }
+
+    private int firstRowAfter(int vehicleNumber) {
+        int row = Arrays.binarySearch(ids, 0, rows, vehicleNumber);
+        return row < 0 ? -row - 1 : row + 1;
+    }
+
+    /**
+     * Move the live rows down over the removed ones and rebuild the bitsets.
+     */
+    private void compact() {
+        int to = 0;
+        for (int row = live.nextSetBit(0); row >= 0; row = live.nextSetBit(row + 1)) {
+            ids[to] = ids[row];
+            nameCodes[to] = nameCodes[row];
+            types[to] = types[row];
+            statuses[to] = statuses[row];
+            prices[to] = prices[row];
+            to++;
+        }
+        rows = to;
+        live.clear();
+        live.set(0, rows);
+        for (BitSet bits : rowsByStatus) {
+            bits.clear();
+        }
+        for (BitSet bits : rowsByType) {
+            bits.clear();
+        }
+        for (int row = 0; row < rows; row++) {
+            rowsByStatus[statuses[row]].set(row);
+            rowsByType[types[row]].set(row);
+        }
+    }
+
+    private int encodeName(String name) {
+        Integer code = codesByName.get(name);
+        if (code != null) {
+            return code;
+        }
+        if (nameCount == names.length) {
+            names = Arrays.copyOf(names, nameCount * 2);
+        }
+        names[nameCount] = name;
+        codesByName.put(name, nameCount);
+        return nameCount++;
+    }
+
+    private void ensureCapacity(int needed) {
+        if (needed <= ids.length) {
+            return;
+        }
+        int capacity = Math.max(needed, ids.length + (ids.length >> 1));
+        ids = Arrays.copyOf(ids, capacity);
+        nameCodes = Arrays.copyOf(nameCodes, capacity);
+        types = Arrays.copyOf(types, capacity);
+        statuses = Arrays.copyOf(statuses, capacity);
+        prices = Arrays.copyOf(prices, capacity);
+    }
+
+    private static int toInt(long vehicleNumber) {
+        if (vehicleNumber <= 0 || vehicleNumber > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid vehicle number: " + vehicleNumber);
+        }
+        return (int) vehicleNumber;
+    }
+}
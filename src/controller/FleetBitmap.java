@@ -0,0 +1,224 @@
+package controller;
+
+import model.Vehicle;
+import model.VehicleStatus;
+import model.VehicleType;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Bitset view of the fleet state.
+ * Every vehicle gets a dense integer slot, and each status and each type
+ * owns a BitSet of the slots of its vehicles. Combined filters are bitwise
+ * AND/OR over those sets and counts are popcounts.
+ * Slots are handed out in insertion order and never reused, so walking a
+ * mask yields vehicles in ID order; deleted slots are squeezed out once they
+ * make up half the range.
+ */
+class FleetBitmap {
+    private Vehicle[] vehicles;
+    // Status each slot is marked under; may lag the vehicle until it is re-marked
+    private VehicleStatus[] markedStatus;
+    // Vehicle number -> slot
+    private final LongIntMap slots;
+    private final BitSet occupied;
+    private final BitSet[] byStatus;
+    private final BitSet[] byType;
+
+    // Slots handed out so far, including those of deleted vehicles
+    private int slotLimit;
+    private int size;
+
+    FleetBitmap() {
+        this.vehicles = new Vehicle[64];
+        this.markedStatus = new VehicleStatus[64];
+        this.slots = new LongIntMap();
+        this.occupied = new BitSet();
+        this.byStatus = new BitSet[VehicleStatus.values().length];
+        this.byType = new BitSet[VehicleType.values().length];
+        for (int i = 0; i < byStatus.length; i++) {
+            byStatus[i] = new BitSet();
+        }
+        for (int i = 0; i < byType.length; i++) {
+            byType[i] = new BitSet();
+        }
+    }
+
+    /**
+     * Give a vehicle a slot. Its status and type bits are set by mark().
+     * @param vehicle Vehicle to place
+     */
+    void assignSlot(Vehicle vehicle) {
+        int slot = slotLimit++;
+        if (slot >= vehicles.length) {
+            Vehicle[] grown = new Vehicle[Math.max(vehicles.length * 2, slot + 1)];
+            System.arraycopy(vehicles, 0, grown, 0, vehicles.length);
+            vehicles = grown;
+            VehicleStatus[] grownStatus = new VehicleStatus[grown.length];
+            System.arraycopy(markedStatus, 0, grownStatus, 0, markedStatus.length);
+            markedStatus = grownStatus;
+        }
+        vehicles[slot] = vehicle;
+        slots.put(vehicle.getVehicleNumber(), slot);
+        occupied.set(slot);
+        size++;
+    }
+
+    /**
+     * Free a vehicle's slot. Call unmark() first.
+     * @param vehicle Vehicle to remove
+     */
+    void releaseSlot(Vehicle vehicle) {
+        int slot = slots.remove(vehicle.getVehicleNumber());
+        if (slot == LongIntMap.MISSING) {
+            return;
+        }
+        vehicles[slot] = null;
+        markedStatus[slot] = null;
+        occupied.clear(slot);
+        size--;
+        if (slotLimit > 64 && size < slotLimit / 2) {
+            compact();
+        }
+    }
+
+    /**
+     * Move the vehicles down over the freed slots, keeping their order
+     */
+    private void compact() {
+        Vehicle[] packedVehicles = new Vehicle[Math.max(64, size * 2)];
+        VehicleStatus[] packedStatus = new VehicleStatus[packedVehicles.length];
+        occupied.clear();
+        for (BitSet bits : byStatus) {
+            bits.clear();
+        }
+        for (BitSet bits : byType) {
+            bits.clear();
+        }
+        int next = 0;
+        for (int slot = 0; slot < slotLimit; slot++) {
+            Vehicle vehicle = vehicles[slot];
+            if (vehicle == null) {
+                continue;
+            }
+            packedVehicles[next] = vehicle;
+            packedStatus[next] = markedStatus[slot];
+            slots.put(vehicle.getVehicleNumber(), next);
+            occupied.set(next);
+            if (markedStatus[slot] != null) {
+                byStatus[markedStatus[slot].ordinal()].set(next);
+                byType[vehicle.getVehicleType().ordinal()].set(next);
+            }
+            next++;
+        }
+        vehicles = packedVehicles;
+        markedStatus = packedStatus;
+        slotLimit = next;
+    }
+
+    /**
+     * Set the status and type bits for a vehicle.
+     * @param vehicle Vehicle with a slot
+     * @param status Status to mark the vehicle under
+     */
+    void mark(Vehicle vehicle, VehicleStatus status) {
+        int slot = slots.get(vehicle.getVehicleNumber());
+        if (slot != LongIntMap.MISSING) {
+            markedStatus[slot] = status;
+            byStatus[status.ordinal()].set(slot);
+            byType[vehicle.getVehicleType().ordinal()].set(slot);
+        }
+    }
+
+    /**
+     * Clear the status and type bits a vehicle was marked under.
+     * @param vehicle Vehicle with a slot
+     */
+    void unmark(Vehicle vehicle) {
+        int slot = slots.get(vehicle.getVehicleNumber());
+        if (slot != LongIntMap.MISSING && markedStatus[slot] != null) {
+            byStatus[markedStatus[slot].ordinal()].clear(slot);
+            byType[vehicle.getVehicleType().ordinal()].clear(slot);
+            markedStatus[slot] = null;
+        }
+    }
+
+    /**
+     * Get the status a vehicle is currently marked under.
+     * @param vehicle Vehicle to look up
+     * @return Marked status, or null if the vehicle has no slot or is unmarked
+     */
+    VehicleStatus markedStatus(Vehicle vehicle) {
+        int slot = slots.get(vehicle.getVehicleNumber());
+        return slot == LongIntMap.MISSING ? null : markedStatus[slot];
+    }
+
+    /**
+     * Build the slot mask of vehicles with any of the statuses and the type.
+     * @param statuses Statuses to include, or null for any status
+     * @param type Type to include, or null for any type
+     * @return New BitSet of matching slots
+     */
+    BitSet mask(Collection<VehicleStatus> statuses, VehicleType type) {
+        BitSet mask;
+        if (statuses == null) {
+            mask = (BitSet) occupied.clone();
+        } else {
+            mask = new BitSet();
+            for (VehicleStatus status : statuses) {
+                mask.or(byStatus[status.ordinal()]);
+            }
+        }
+        if (type != null) {
+            mask.and(byType[type.ordinal()]);
+        }
+        return mask;
+    }
+
+    /**
+     * Count vehicles with any of the statuses and the type.
+     * @param statuses Statuses to include, or null for any status
+     * @param type Type to include, or null for any type
+     * @return Number of matching vehicles
+     */
+    int count(Collection<VehicleStatus> statuses, VehicleType type) {
+        if (statuses != null && statuses.size() == 1 && type == null) {
+            return byStatus[statuses.iterator().next().ordinal()].cardinality();
+        }
+        return mask(statuses, type).cardinality();
+    }
+
+    /**
+     * Get the vehicles of a slot mask in slot order, which is ID order.
+     * @param mask Slots to read
+     * @return Vehicles in the mask
+     */
+    List<Vehicle> select(BitSet mask) {
+        List<Vehicle> selected = new ArrayList<>(mask.cardinality());
+        for (int slot = mask.nextSetBit(0); slot >= 0; slot = mask.nextSetBit(slot + 1)) {
+            selected.add(vehicles[slot]);
+        }
+        return selected;
+    }
+
+    Vehicle get(int slot) {
+        return vehicles[slot];
+    }
+
+    void clear() {
+        vehicles = new Vehicle[64];
+        markedStatus = new VehicleStatus[64];
+        slots.clear();
+        occupied.clear();
+        for (BitSet bits : byStatus) {
+            bits.clear();
+        }
+        for (BitSet bits : byType) {
+            bits.clear();
+        }
+        slotLimit = 0;
+        size = 0;
+    }
+}
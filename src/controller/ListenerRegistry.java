@@ -0,0 +1,299 @@
+package controller;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+
+/**
+ * Delivers events to listeners asynchronously.
+ * Every listener gets its own bounded queue drained by its own single
+ * thread, so publishing only enqueues and a slow or failing listener
+ * never holds up the mutating thread or the other listeners.
+ * Listeners are held weakly and kept alive by the Subscription returned from
+ * add, so a listener whose owner forgot to unsubscribe is dropped once it is
+ * garbage collected instead of receiving events forever.
+ * @param <L> Listener type
+ * @param <E> Event type
+ */
+class ListenerRegistry<L, E> {
+    static final int DEFAULT_CAPACITY = 1024;
+
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+    private final String name;
+    private final BiConsumer<L, E> dispatcher;
+    private final BinaryOperator<E> merger;
+    private final CopyOnWriteArrayList<Subscriber> subscribers;
+
+    /**
+     * @param name Prefix for the delivery thread names
+     * @param dispatcher Calls a listener with an event
+     * @param merger Merges two events into one for OverflowPolicy.COALESCE
+     */
+    ListenerRegistry(String name, BiConsumer<L, E> dispatcher, BinaryOperator<E> merger) {
+        this.name = name;
+        this.dispatcher = dispatcher;
+        this.merger = merger;
+        this.subscribers = new CopyOnWriteArrayList<>();
+    }
+
+    /**
+     * Add a listener unless it is already registered.
+     * @param listener Listener to add
+     * @param capacity Maximum queued events
+     * @param policy What to do when the queue is full
+     * @return Subscription keeping the listener registered until closed
+     */
+    synchronized Subscription add(L listener, int capacity, OverflowPolicy policy) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be at least 1");
+        }
+        Subscriber subscriber = find(listener);
+        if (subscriber == null) {
+            subscriber = new Subscriber(listener, capacity, policy);
+            subscribers.add(subscriber);
+        }
+        return new Handle(listener, subscriber);
+    }
+
+    /**
+     * Remove a listener and stop its delivery thread. Queued events are discarded.
+     * @param listener Listener to remove
+     */
+    synchronized void remove(L listener) {
+        Subscriber subscriber = find(listener);
+        if (subscriber != null) {
+            unsubscribe(subscriber);
+        }
+    }
+
+    private synchronized void unsubscribe(Subscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            subscriber.close();
+        }
+    }
+
+    /**
+     * Queue an event for every listener.
+     * @param event Event to deliver
+     */
+    void publish(E event) {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.listener.get() == null) {
+                unsubscribe(subscriber);
+            } else {
+                subscriber.offer(event, now);
+            }
+        }
+    }
+
+    /**
+     * Count the live listeners, dropping any that were garbage collected.
+     * @return Number of listeners events are delivered to
+     */
+    int size() {
+        int count = 0;
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.listener.get() == null) {
+                unsubscribe(subscriber);
+            } else {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    List<ListenerStats> stats() {
+        List<ListenerStats> stats = new ArrayList<>();
+        for (Subscriber subscriber : subscribers) {
+            stats.add(subscriber.stats());
+        }
+        return stats;
+    }
+
+    private Subscriber find(L listener) {
+        for (Subscriber subscriber : subscribers) {
+            if (listener.equals(subscriber.listener.get())) {
+                return subscriber;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Event with its publish time, for lag measurement
+     */
+    private static class Envelope<E> {
+        final E event;
+        final long publishedNanos;
+
+        Envelope(E event, long publishedNanos) {
+            this.event = event;
+            this.publishedNanos = publishedNanos;
+        }
+    }
+
+    /**
+     * Holds the listener strongly on behalf of its owner
+     */
+    private class Handle implements Subscription {
+        // Cleared on close so the listener can be collected even if the handle is kept
+        private volatile L listener;
+        private final Subscriber subscriber;
+
+        Handle(L listener, Subscriber subscriber) {
+            this.listener = listener;
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void close() {
+            if (listener != null) {
+                listener = null;
+                unsubscribe(subscriber);
+            }
+        }
+
+        @Override
+        public boolean isActive() {
+            return listener != null && subscribers.contains(subscriber);
+        }
+    }
+
+    private class Subscriber {
+        final WeakReference<L> listener;
+        final int capacity;
+        final OverflowPolicy policy;
+        final ExecutorService executor;
+
+        final ReentrantLock lock = new ReentrantLock();
+        final Condition notFull = lock.newCondition();
+        // Guarded by lock
+        final ArrayDeque<Envelope<E>> queue = new ArrayDeque<>();
+        boolean draining;
+        boolean closed;
+        long delivered;
+        long dropped;
+        long coalesced;
+        long failed;
+        long lastLagNanos;
+        long maxLagNanos;
+
+        Subscriber(L listener, int capacity, OverflowPolicy policy) {
+            this.listener = new WeakReference<>(listener);
+            this.capacity = capacity;
+            this.policy = policy;
+            String threadName = name + "-" + THREAD_COUNTER.incrementAndGet();
+            this.executor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, threadName);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+        void offer(E event, long publishedNanos) {
+            lock.lock();
+            try {
+                while (!closed && queue.size() >= capacity) {
+                    if (policy == OverflowPolicy.BLOCK) {
+                        notFull.awaitUninterruptibly();
+                    } else if (policy == OverflowPolicy.DROP_OLDEST) {
+                        queue.pollFirst();
+                        dropped++;
+                    } else {
+                        // Keep the older publish time so the lag covers the whole merged event
+                        Envelope<E> newest = queue.pollLast();
+                        event = merger.apply(newest.event, event);
+                        publishedNanos = newest.publishedNanos;
+                        coalesced++;
+                    }
+                }
+                if (closed) {
+                    return;
+                }
+                queue.addLast(new Envelope<>(event, publishedNanos));
+                if (!draining) {
+                    draining = true;
+                    executor.execute(this::drain);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                Envelope<E> envelope;
+                lock.lock();
+                try {
+                    envelope = queue.pollFirst();
+                    if (envelope == null || closed) {
+                        draining = false;
+                        return;
+                    }
+                    long lag = System.nanoTime() - envelope.publishedNanos;
+                    lastLagNanos = lag;
+                    maxLagNanos = Math.max(maxLagNanos, lag);
+                    notFull.signal();
+                } finally {
+                    lock.unlock();
+                }
+
+                L target = listener.get();
+                if (target == null) {
+                    // Owner went away without unsubscribing; publish prunes us
+                    continue;
+                }
+                boolean ok = true;
+                try {
+                    dispatcher.accept(target, envelope.event);
+                } catch (RuntimeException e) {
+                    ok = false;
+                }
+                lock.lock();
+                try {
+                    if (ok) {
+                        delivered++;
+                    } else {
+                        failed++;
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+
+        void close() {
+            lock.lock();
+            try {
+                closed = true;
+                queue.clear();
+                notFull.signalAll();
+            } finally {
+                lock.unlock();
+            }
+            executor.shutdown();
+        }
+
+        ListenerStats stats() {
+            lock.lock();
+            try {
+                L target = listener.get();
+                return new ListenerStats(String.valueOf(target), policy, queue.size(), capacity, delivered,
+                    dropped, coalesced, failed, lastLagNanos / 1000, maxLagNanos / 1000);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
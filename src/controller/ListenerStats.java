@@ -0,0 +1,81 @@
+package controller;
+
+/**
+ * Snapshot of one listener's delivery queue.
+ * Lag is the time from publishing an event to the listener starting to handle it.
+ */
+public class ListenerStats {
+    private final String listener;
+    private final OverflowPolicy policy;
+    private final int queued;
+    private final int capacity;
+    private final long delivered;
+    private final long dropped;
+    private final long coalesced;
+    private final long failed;
+    private final long lastLagMicros;
+    private final long maxLagMicros;
+
+    ListenerStats(String listener, OverflowPolicy policy, int queued, int capacity, long delivered,
+                  long dropped, long coalesced, long failed, long lastLagMicros, long maxLagMicros) {
+        this.listener = listener;
+        this.policy = policy;
+        this.queued = queued;
+        this.capacity = capacity;
+        this.delivered = delivered;
+        this.dropped = dropped;
+        this.coalesced = coalesced;
+        this.failed = failed;
+        this.lastLagMicros = lastLagMicros;
+        this.maxLagMicros = maxLagMicros;
+    }
+
+    public String getListener() {
+        return listener;
+    }
+
+    public OverflowPolicy getPolicy() {
+        return policy;
+    }
+
+    public int getQueued() {
+        return queued;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public long getDelivered() {
+        return delivered;
+    }
+
+    public long getDropped() {
+        return dropped;
+    }
+
+    public long getCoalesced() {
+        return coalesced;
+    }
+
+    /**
+     * @return Number of events the listener threw on
+     */
+    public long getFailed() {
+        return failed;
+    }
+
+    public long getLastLagMicros() {
+        return lastLagMicros;
+    }
+
+    public long getMaxLagMicros() {
+        return maxLagMicros;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s [%s] queued %d/%d, delivered %d, dropped %d, coalesced %d, failed %d, lag %d us (max %d us)",
+            listener, policy, queued, capacity, delivered, dropped, coalesced, failed, lastLagMicros, maxLagMicros);
+    }
+}
@@ -0,0 +1,124 @@
+package controller;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash map from primitive long keys to int values, for
+ * position lookups that would otherwise box both. Same layout as
+ * LongObjectMap: linear probing, backward-shift deletion and key 0 reserved.
+ * Not thread-safe.
+ */
+final class LongIntMap {
+    /** Returned by get() and remove() for absent keys */
+    static final int MISSING = -1;
+
+    private long[] keys;
+    private int[] values;
+    private int size;
+
+    LongIntMap() {
+        this.keys = new long[16];
+        this.values = new int[16];
+    }
+
+    /**
+     * Spread the key bits so sequential IDs do not fill one run of slots.
+     */
+    static int hash(long key) {
+        long mixed = key * 0x9E3779B97F4A7C15L;
+        return (int) (mixed ^ (mixed >>> 32));
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return Value for the key, or MISSING
+     */
+    int get(long key) {
+        int mask = keys.length - 1;
+        int index = hash(key) & mask;
+        while (keys[index] != 0) {
+            if (keys[index] == key) {
+                return values[index];
+            }
+            index = (index + 1) & mask;
+        }
+        return MISSING;
+    }
+
+    void put(long key, int value) {
+        if (key == 0) {
+            throw new IllegalArgumentException("Key 0 is reserved");
+        }
+        int mask = keys.length - 1;
+        int index = hash(key) & mask;
+        while (keys[index] != 0) {
+            if (keys[index] == key) {
+                values[index] = value;
+                return;
+            }
+            index = (index + 1) & mask;
+        }
+        keys[index] = key;
+        values[index] = value;
+        if (++size > keys.length / 2) {
+            resize(keys.length * 2);
+        }
+    }
+
+    /**
+     * @return Removed value, or MISSING
+     */
+    int remove(long key) {
+        if (key == 0) {
+            // Reserved empty marker; would otherwise match the first free slot
+            return MISSING;
+        }
+        int mask = keys.length - 1;
+        int index = hash(key) & mask;
+        while (keys[index] != key) {
+            if (keys[index] == 0) {
+                return MISSING;
+            }
+            index = (index + 1) & mask;
+        }
+        int removed = values[index];
+        int hole = index;
+        for (int next = (hole + 1) & mask; keys[next] != 0; next = (next + 1) & mask) {
+            int home = hash(keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                values[hole] = values[next];
+                hole = next;
+            }
+        }
+        keys[hole] = 0;
+        size--;
+        return removed;
+    }
+
+    void clear() {
+        Arrays.fill(keys, 0);
+        size = 0;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new long[capacity];
+        values = new int[capacity];
+        int mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                int index = hash(oldKeys[i]) & mask;
+                while (keys[index] != 0) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package controller;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash map from primitive long keys to objects.
+ * Linear probing with backward-shift deletion keeps lookups to a short run
+ * of adjacent slots and never boxes the key. Key 0 is reserved as the empty
+ * marker; entity numbers start at 1.
+ * Not thread-safe. get() always terminates even while a writer is active,
+ * so it can run under an optimistic stamp whose validation discards a torn
+ * result.
+ * @param <V> Value type
+ */
+final class LongObjectMap<V> {
+    private long[] keys;
+    private Object[] values;
+    private int size;
+
+    LongObjectMap() {
+        this(16);
+    }
+
+    LongObjectMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(expectedSize, 8) * 2 - 1) << 1;
+        this.keys = new long[capacity];
+        this.values = new Object[capacity];
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return Value for the key, or null if there is none
+     */
+    @SuppressWarnings("unchecked")
+    V get(long key) {
+        long[] keys = this.keys;
+        Object[] values = this.values;
+        int mask = Math.min(keys.length, values.length) - 1;
+        int index = LongIntMap.hash(key) & mask;
+        for (int probes = 0; probes <= mask; probes++) {
+            long found = keys[index];
+            if (found == key) {
+                return (V) values[index];
+            }
+            if (found == 0) {
+                return null;
+            }
+            index = (index + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * @return Previous value for the key, or null if there was none
+     */
+    @SuppressWarnings("unchecked")
+    V put(long key, V value) {
+        if (key == 0) {
+            throw new IllegalArgumentException("Key 0 is reserved");
+        }
+        int mask = keys.length - 1;
+        int index = LongIntMap.hash(key) & mask;
+        while (keys[index] != 0) {
+            if (keys[index] == key) {
+                V previous = (V) values[index];
+                values[index] = value;
+                return previous;
+            }
+            index = (index + 1) & mask;
+        }
+        keys[index] = key;
+        values[index] = value;
+        if (++size > keys.length / 2) {
+            resize(keys.length * 2);
+        }
+        return null;
+    }
+
+    /**
+     * @return Removed value, or null if the key was absent
+     */
+    @SuppressWarnings("unchecked")
+    V remove(long key) {
+        if (key == 0) {
+            // Reserved empty marker; would otherwise match the first free slot
+            return null;
+        }
+        int mask = keys.length - 1;
+        int index = LongIntMap.hash(key) & mask;
+        while (keys[index] != key) {
+            if (keys[index] == 0) {
+                return null;
+            }
+            index = (index + 1) & mask;
+        }
+        V removed = (V) values[index];
+        // Shift later entries of the run back so probing never hits a hole
+        int hole = index;
+        for (int next = (hole + 1) & mask; keys[next] != 0; next = (next + 1) & mask) {
+            int home = LongIntMap.hash(keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                values[hole] = values[next];
+                hole = next;
+            }
+        }
+        keys[hole] = 0;
+        values[hole] = null;
+        size--;
+        return removed;
+    }
+
+    void clear() {
+        Arrays.fill(keys, 0);
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        long[] newKeys = new long[capacity];
+        Object[] newValues = new Object[capacity];
+        int mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                int index = LongIntMap.hash(oldKeys[i]) & mask;
+                while (newKeys[index] != 0) {
+                    index = (index + 1) & mask;
+                }
+                newKeys[index] = oldKeys[i];
+                newValues[index] = oldValues[i];
+            }
+        }
+        values = newValues;
+        keys = newKeys;
+    }
+}
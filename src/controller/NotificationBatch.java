@@ -0,0 +1,55 @@
+package controller;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Groups the change notifications of several operations into one transaction.
+ * While a batch is open on a thread, the controllers queue the notifications
+ * that thread triggers and deliver them back to back when the outermost batch
+ * ends, so listeners never observe the operation half done. Other threads are
+ * not affected.
+ */
+public final class NotificationBatch {
+
+    private static final ThreadLocal<List<Runnable>> PENDING = new ThreadLocal<>();
+
+    private NotificationBatch() {
+    }
+
+    /**
+     * Run an action with notifications held until it finishes.
+     * Notifications are still delivered if the action throws.
+     * @param action Action to run
+     * @return Result of the action
+     */
+    public static <T> T run(Supplier<T> action) {
+        if (PENDING.get() != null) {
+            return action.get();
+        }
+        List<Runnable> pending = new ArrayList<>();
+        PENDING.set(pending);
+        try {
+            return action.get();
+        } finally {
+            PENDING.remove();
+            for (Runnable notification : pending) {
+                notification.run();
+            }
+        }
+    }
+
+    /**
+     * Deliver a notification now, or queue it if a batch is open on this thread.
+     * @param notification Notification to deliver
+     */
+    static void deliver(Runnable notification) {
+        List<Runnable> pending = PENDING.get();
+        if (pending != null) {
+            pending.add(notification);
+        } else {
+            notification.run();
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package controller;
+
+/**
+ * What a listener's event queue does when it is full.
+ */
+public enum OverflowPolicy {
+    /** Merge the new event into the newest queued one */
+    COALESCE,
+    /** Discard the oldest queued event */
+    DROP_OLDEST,
+    /** Make the publishing thread wait for room */
+    BLOCK
+}
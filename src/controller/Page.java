@@ -0,0 +1,37 @@
+package controller;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One page of results from a cursor-paginated query.
+ * Pass getNextCursor() back to the same query to get the following page.
+ * Cursors record the sort key of the last item rather than an offset, so
+ * paging stays stable while records are added. A full page always carries a
+ * cursor, so the last page may come back empty.
+ * @param <T> Item type
+ */
+public final class Page<T> {
+    private final List<T> items;
+    private final String nextCursor;
+
+    Page(List<T> items, String nextCursor) {
+        this.items = Collections.unmodifiableList(items);
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    /**
+     * @return Cursor for the next page, or null if this is the last one
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasMore() {
+        return nextCursor != null;
+    }
+}
@@ -0,0 +1,102 @@
+package controller;
+
+import java.util.Collections;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Describes one change to the rentals: which rentals were added or updated,
+ * and for updates which fields changed. Listeners use it to patch single
+ * table rows instead of reloading everything.
+ * Reservations share this stream under their own IDs ("B001"): ADDED when
+ * booked, and a STATUS update when started or cancelled.
+ */
+public class RentalChangeEvent {
+
+    /**
+     * Kind of change
+     */
+    public enum Kind {
+        ADDED, UPDATED,
+        /** All rentals were replaced; reload everything */
+        RESET
+    }
+
+    /**
+     * Rental fields an update can change
+     */
+    public enum Field {
+        STATUS, RETURN_DATE, GIVE_BACK_DATE
+    }
+
+    private final Kind kind;
+    private final List<String> rentalIds;
+    private final Set<Field> changedFields;
+
+    public RentalChangeEvent(Kind kind, List<String> rentalIds, Set<Field> changedFields) {
+        this.kind = kind;
+        this.rentalIds = Collections.unmodifiableList(rentalIds);
+        this.changedFields = changedFields.isEmpty()
+            ? Collections.emptySet()
+            : Collections.unmodifiableSet(EnumSet.copyOf(changedFields));
+    }
+
+    static RentalChangeEvent added(String rentalId) {
+        return new RentalChangeEvent(Kind.ADDED, List.of(rentalId), EnumSet.allOf(Field.class));
+    }
+
+    static RentalChangeEvent updated(String rentalId, Set<Field> changedFields) {
+        return new RentalChangeEvent(Kind.UPDATED, List.of(rentalId), changedFields);
+    }
+
+    static RentalChangeEvent reset() {
+        return new RentalChangeEvent(Kind.RESET, List.of(), EnumSet.allOf(Field.class));
+    }
+
+    /**
+     * Merge two events into one that covers both, for listeners whose queue
+     * overflowed. Events of the same kind combine their IDs and fields;
+     * anything else becomes a RESET.
+     */
+    static RentalChangeEvent merge(RentalChangeEvent first, RentalChangeEvent second) {
+        if (first.kind != second.kind || first.kind == Kind.RESET) {
+            return reset();
+        }
+        Set<String> ids = new LinkedHashSet<>(first.rentalIds);
+        ids.addAll(second.rentalIds);
+        Set<Field> fields = EnumSet.noneOf(Field.class);
+        fields.addAll(first.changedFields);
+        fields.addAll(second.changedFields);
+        return new RentalChangeEvent(first.kind, new ArrayList<>(ids), fields);
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * @return IDs of the affected rentals and reservations; empty for RESET
+     */
+    public List<String> getRentalIds() {
+        return rentalIds;
+    }
+
+    /**
+     * @return Fields changed by an update; every field for ADDED and RESET
+     */
+    public Set<Field> getChangedFields() {
+        return changedFields;
+    }
+
+    public boolean hasChanged(Field field) {
+        return changedFields.contains(field);
+    }
+
+    @Override
+    public String toString() {
+        return kind + " " + rentalIds + " " + changedFields;
+    }
+}
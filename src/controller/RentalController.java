@@ -1,46 +1,227 @@
 package controller;
 
 import model.Rental;
+import model.Reservation;
 import model.Vehicle;
+import model.VehicleStatus;
+import model.VehicleType;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
 
 /**
  * Controller for managing rental operations.
  * Handles rental creation, return processing, and history tracking.
  * Rental is now based on date/time instead of days.
+ * Safe to use from several threads: vehicle availability is claimed with
+ * VehicleController.transitionStatus(), so a vehicle is never rented twice.
  */
 public class RentalController {
-    private List<Rental> rentals;
-    private int nextRentalId;
+    /** Most rentals one customer may have active at the same time */
+    public static final int MAX_ACTIVE_RENTALS = 3;
+    
+    /** Most booked reservations one customer may hold at the same time */
+    public static final int MAX_BOOKED_RESERVATIONS = 3;
+    
+    private static final long FIRST_RENTAL_ID = 1001;
+    private static final Comparator<Rental> BOOKING_ORDER = Comparator.comparingLong(Rental::getRentalNumber);
+    
+    // Published view of all rentals: replaced while holding this controller's
+    // monitor, read without it
+    private volatile Snapshot<Rental> rentals;
+    // Rentals by start date for paging; written while holding this controller's monitor
+    private final ConcurrentSkipListMap<DateKey, Rental> rentalsByDate;
+    // Rentals per customer; the segments inside are guarded by this controller's monitor
+    private final ConcurrentHashMap<String, CustomerRentals> rentalsByCustomer;
+    // Active rental of each rented vehicle by vehicle number; guarded by this controller's monitor
+    private final LongObjectMap<Rental> activeByVehicle;
+    // Running aggregates, updated inside each state transition and guarded by
+    // this controller's monitor. Money is kept in whole cents so the totals
+    // stay exact however many rentals are added up.
+    private long revenueCents;
+    private int activeCount;
+    private int returnedCount;
+    private int lostCount;
+    private final long[] revenueCentsByType;
+    // Type of the vehicle each active rental was booked on, by rental number,
+    // so its revenue is attributed correctly even if the vehicle is later edited or deleted
+    private final LongObjectMap<VehicleType> activeVehicleTypes;
+    private final RevenueRollup rollup;
+    // Booked periods of each vehicle, by vehicle number, and the advance
+    // reservations holding some of them; guarded by this controller's monitor
+    private final LongObjectMap<VehicleSchedule> schedules;
+    private final LongObjectMap<Reservation> reservations;
+    private long nextReservationNumber;
+    private final AtomicLong nextRentalId;
     private VehicleController vehicleController;
     
-    // Listeners for data changes
-    private List<RentalDataListener> listeners;
+    // Listeners for data changes; each is called on its own delivery thread
+    private final ListenerRegistry<RentalDataListener, RentalChangeEvent> listeners;
+    
+    /**
+     * Orders available to getRentalsPage()
+     */
+    public enum SortKey {
+        /** Booking order, i.e. the order of getAllRentals() */
+        RENTAL_ID,
+        /** Earliest start date/time first, booking order breaking ties */
+        RENTAL_DATE
+    }
+    
+    /**
+     * Bucket sizes available to getRevenueTrend()
+     */
+    public enum Granularity {
+        HOUR, DAY, MONTH
+    }
+    
+    /** Most buckets one getRevenueTrend() call may return */
+    public static final int MAX_TREND_BUCKETS = 10_000;
+    
+    /**
+     * Sort key of the date index: start date first, rental number to break ties.
+     */
+    private static class DateKey implements Comparable<DateKey> {
+        final LocalDateTime rentalDate;
+        final long rentalNumber;
+        
+        DateKey(LocalDateTime rentalDate, long rentalNumber) {
+            this.rentalDate = rentalDate;
+            this.rentalNumber = rentalNumber;
+        }
+        
+        @Override
+        public int compareTo(DateKey other) {
+            int byDate = rentalDate.compareTo(other.rentalDate);
+            return byDate != 0 ? byDate : Long.compare(rentalNumber, other.rentalNumber);
+        }
+    }
+    
+    /**
+     * One customer's rentals, split into an active and a closed segment.
+     * Both segments are kept in booking order; byDate holds the same rentals
+     * by start date, so date-ordered pages never visit other customers.
+     */
+    private static class CustomerRentals {
+        // Active rentals plus bookings still in progress. Reserved before the
+        // vehicle is claimed, so concurrent bookings cannot exceed the limit.
+        final AtomicInteger activeCount = new AtomicInteger();
+        final List<Rental> active = new ArrayList<>();
+        final List<Rental> closed = new ArrayList<>();
+        final NavigableMap<DateKey, Rental> byDate = new TreeMap<>();
+        // Reservations still booked, in booking order
+        final List<Reservation> booked = new ArrayList<>();
+        long revenueCents;
+        
+        /**
+         * Take one of the customer's active rental slots.
+         * @return false if the customer is already at MAX_ACTIVE_RENTALS
+         */
+        boolean reserve() {
+            while (true) {
+                int count = activeCount.get();
+                if (count >= MAX_ACTIVE_RENTALS) {
+                    return false;
+                }
+                if (activeCount.compareAndSet(count, count + 1)) {
+                    return true;
+                }
+            }
+        }
+        
+        /**
+         * Move a returned or lost rental to the closed segment and free its slot
+         */
+        void close(Rental rental) {
+            if (!active.remove(rental)) {
+                return;
+            }
+            // Rentals close out of booking order, but usually near the end
+            int index = Collections.binarySearch(closed, rental, BOOKING_ORDER);
+            closed.add(-index - 1, rental);
+            activeCount.decrementAndGet();
+        }
+        
+        /**
+         * @return Both segments merged back into booking order
+         */
+        List<Rental> all() {
+            List<Rental> all = new ArrayList<>(active.size() + closed.size());
+            int a = 0;
+            int c = 0;
+            while (a < active.size() || c < closed.size()) {
+                if (c == closed.size() || (a < active.size()
+                        && active.get(a).getRentalNumber() < closed.get(c).getRentalNumber())) {
+                    all.add(active.get(a++));
+                } else {
+                    all.add(closed.get(c++));
+                }
+            }
+            return all;
+        }
+    }
     
     /**
      * Interface for listening to rental data changes
      */
     public interface RentalDataListener {
-        void onRentalDataChanged();
+        void onRentalDataChanged(RentalChangeEvent event);
     }
     
     public RentalController(VehicleController vehicleController) {
-        this.rentals = new ArrayList<>();
-        this.nextRentalId = 1001;
+        this.rentals = new Snapshot<>(PersistentVector.empty(), 0, 0);
+        this.rentalsByDate = new ConcurrentSkipListMap<>();
+        this.rentalsByCustomer = new ConcurrentHashMap<>();
+        this.activeByVehicle = new LongObjectMap<>();
+        this.revenueCentsByType = new long[VehicleType.values().length];
+        this.activeVehicleTypes = new LongObjectMap<>();
+        this.rollup = new RevenueRollup();
+        this.schedules = new LongObjectMap<>();
+        this.reservations = new LongObjectMap<>();
+        this.nextReservationNumber = 1;
+        this.nextRentalId = new AtomicLong(FIRST_RENTAL_ID);
         this.vehicleController = vehicleController;
-        this.listeners = new ArrayList<>();
+        this.listeners = new ListenerRegistry<>("rental-listener",
+            RentalDataListener::onRentalDataChanged, RentalChangeEvent::merge);
+    }
+    
+    /**
+     * Add a listener for rental data changes.
+     * It is called on its own thread; a full queue coalesces events.
+     * @return Subscription to close when the listener is no longer needed
+     */
+    public Subscription addRentalDataListener(RentalDataListener listener) {
+        return addRentalDataListener(listener, ListenerRegistry.DEFAULT_CAPACITY, OverflowPolicy.COALESCE);
     }
     
     /**
-     * Add a listener for rental data changes
+     * Add a listener for rental data changes with its own queue settings.
+     * @param listener Listener to add
+     * @param capacity Maximum events queued for the listener
+     * @param policy What to do when the queue is full
+     * @return Subscription to close when the listener is no longer needed.
+     *         The listener is only held weakly, so keep the subscription (or
+     *         the listener) reachable for as long as it should get events.
      */
-    public void addRentalDataListener(RentalDataListener listener) {
-        if (listener != null && !listeners.contains(listener)) {
-            listeners.add(listener);
+    public Subscription addRentalDataListener(RentalDataListener listener, int capacity, OverflowPolicy policy) {
+        if (listener == null) {
+            throw new IllegalArgumentException("Listener cannot be null");
         }
+        return listeners.add(listener, capacity, policy);
     }
     
     /**
@@ -51,70 +232,144 @@ public class RentalController {
     }
     
     /**
-     * Notify all listeners that rental data has changed
+     * Get queue and lag metrics for every rental data listener.
+     * @return One entry per listener
      */
-    private void notifyDataChanged() {
-        for (RentalDataListener listener : listeners) {
-            try {
-                listener.onRentalDataChanged();
-            } catch (Exception e) {
-                // Ignore listener errors
-            }
-        }
+    public List<ListenerStats> getListenerStats() {
+        return listeners.stats();
+    }
+    
+    /**
+     * Get the number of live rental data listeners. Should stay flat over a
+     * long session; growth means subscriptions are not being closed.
+     * @return Listener count
+     */
+    public int getListenerCount() {
+        return listeners.size();
+    }
+    
+    /**
+     * Queue a change for all listeners.
+     * Held back until the end of an open NotificationBatch on this thread.
+     */
+    private void notifyDataChanged(RentalChangeEvent event) {
+        NotificationBatch.deliver(() -> listeners.publish(event));
     }
     
     /**
      * Rent a vehicle for a customer.
+     * The vehicle is handed over now, so it must be available, and the rental
+     * period must not overlap a reservation of the vehicle. Use
+     * reserveVehicle() to book a future period without taking the vehicle.
      * @param customerUsername Username of the customer
      * @param vehicleId ID of the vehicle to rent
      * @param rentalDate Start date/time of rental
      * @param expectedReturnDate Expected return date/time
-     * @return Rental object if successful, null if vehicle not available
+     * @return Rental object if successful, null if vehicle not available, the
+     *         period is reserved, or the customer already has
+     *         MAX_ACTIVE_RENTALS active rentals
      */
     public Rental rentVehicle(String customerUsername, String vehicleId, 
                               LocalDateTime rentalDate, LocalDateTime expectedReturnDate) {
-        // Get vehicle details
-        Vehicle vehicle = vehicleController.getVehicleById(vehicleId);
-        if (vehicle == null) {
-            return null;
-        }
-        
-        // Check if vehicle is available
-        if (!"Available".equals(vehicle.getStatus())) {
-            return null;
-        }
+        return rent(customerUsername, vehicleId, rentalDate, expectedReturnDate, null);
+    }
+    
+    /**
+     * Rent a vehicle, optionally taking over the period of a reservation.
+     */
+    private Rental rent(String customerUsername, String vehicleId, LocalDateTime rentalDate,
+                        LocalDateTime expectedReturnDate, Reservation reservation) {
+        return NotificationBatch.run(() -> {
+            // Get vehicle details
+            long vehicleNumber = Vehicle.parseId(vehicleId);
+            Vehicle vehicle = vehicleController.getVehicleById(vehicleNumber);
+            if (vehicle == null) {
+                return null;
+            }
         
-        // Validate dates
-        if (rentalDate == null || expectedReturnDate == null) {
-            return null;
-        }
+            // Validate dates
+            if (rentalDate == null || expectedReturnDate == null) {
+                return null;
+            }
         
-        if (expectedReturnDate.isBefore(rentalDate) || expectedReturnDate.equals(rentalDate)) {
-            return null;
-        }
+            if (expectedReturnDate.isBefore(rentalDate) || expectedReturnDate.equals(rentalDate)) {
+                return null;
+            }
         
-        // Calculate duration in hours
-        long hours = ChronoUnit.HOURS.between(rentalDate, expectedReturnDate);
-        if (hours <= 0) {
-            return null;
-        }
+            // Calculate duration in hours
+            long hours = ChronoUnit.HOURS.between(rentalDate, expectedReturnDate);
+            if (hours <= 0) {
+                return null;
+            }
         
-        // Calculate total cost: pricePerDay / 24 hours * hours rented
-        double pricePerHour = vehicle.getPricePerDay() / 24.0;
-        double totalCost = pricePerHour * hours;
+            // Cheap early exit; the check that counts is repeated below under the monitor
+            if (reservation == null && !isVehicleFree(vehicleNumber, rentalDate, expectedReturnDate)) {
+                return null;
+            }
         
-        // Create rental record
-        String rentalId = String.format("R%04d", nextRentalId++);
-        Rental rental = new Rental(rentalId, customerUsername, vehicleId, 
-                                   vehicle.getVehicleName(), totalCost, rentalDate, expectedReturnDate);
+            // Hold one of the customer's active slots, then claim the vehicle;
+            // only one concurrent booking can win it
+            CustomerRentals customer = rentalsByCustomer.computeIfAbsent(customerUsername, k -> new CustomerRentals());
+            if (!customer.reserve()) {
+                return null;
+            }
+            if (!vehicleController.transitionStatus(vehicleNumber, VehicleStatus.AVAILABLE, VehicleStatus.RENTED)) {
+                customer.activeCount.decrementAndGet();
+                return null;
+            }
         
-        // Update vehicle status
-        vehicleController.updateVehicleStatus(vehicleId, "Rented");
+            // Calculate total cost: pricePerDay / 24 hours * hours rented
+            double pricePerHour = vehicle.getPricePerDay() / 24.0;
+            double totalCost = pricePerHour * hours;
         
-        // Save rental
-        rentals.add(rental);
-        notifyDataChanged();
-        return rental;
+            // Create and save the rental record. The ID is taken under the same
+            // monitor, so rental N always sits at position N - FIRST_RENTAL_ID.
+            Rental rental = null;
+            synchronized (this) {
+                VehicleSchedule schedule = scheduleFor(vehicleNumber);
+                // A reservation cancelled while the vehicle was being claimed can no longer start
+                boolean usable = reservation == null || "Booked".equals(reservation.getStatus());
+                if (usable && reservation != null) {
+                    // The reservation hands its period over to the rental
+                    schedule.remove(reservation.getStartDate(), reservation);
+                }
+                if (usable && isFree(vehicleNumber, schedule, rentalDate, expectedReturnDate)) {
+                    if (reservation != null) {
+                        reservation.markAsStarted();
+                        customer.booked.remove(reservation);
+                    }
+                    long rentalNumber = nextRentalId.getAndIncrement();
+                    rental = new Rental(rentalNumber, customerUsername, vehicleNumber,
+                                        vehicle.getVehicleName(), totalCost, rentalDate, expectedReturnDate);
+                    rentals = new Snapshot<>(rentals.slots().append(rental), rentals.size() + 1,
+                        rentals.getVersion() + 1);
+                    DateKey dateKey = new DateKey(rentalDate, rentalNumber);
+                    rentalsByDate.put(dateKey, rental);
+                    customer.byDate.put(dateKey, rental);
+                    customer.active.add(rental);
+                    activeByVehicle.put(vehicleNumber, rental);
+                    activeVehicleTypes.put(rentalNumber, vehicle.getVehicleType());
+                    activeCount++;
+                    rollup.addBooking(rentalDate);
+                    schedule.add(rentalDate, expectedReturnDate, rental);
+                } else if (usable && reservation != null) {
+                    // Put the reservation's period back
+                    schedule.add(reservation.getStartDate(), reservation.getEndDate(), reservation);
+                }
+            }
+            if (rental == null) {
+                // Period taken or reservation cancelled; give the vehicle and the slot back
+                vehicleController.transitionStatus(vehicleNumber, VehicleStatus.RENTED, VehicleStatus.AVAILABLE);
+                customer.activeCount.decrementAndGet();
+                return null;
+            }
+            notifyDataChanged(RentalChangeEvent.added(rental.getRentalId()));
+            if (reservation != null) {
+                notifyDataChanged(RentalChangeEvent.updated(reservation.getReservationId(),
+                    EnumSet.of(RentalChangeEvent.Field.STATUS)));
+            }
+            return rental;
+        });
     }
     
     /**
@@ -123,15 +378,18 @@ public class RentalController {
      * @return true if return successful, false if rental not found
      */
     public boolean returnVehicle(String rentalId) {
-        for (Rental rental : rentals) {
-            if (rental.getRentalId().equals(rentalId) && "Active".equals(rental.getStatus())) {
-                rental.markAsReturned();
-                vehicleController.updateVehicleStatus(rental.getVehicleId(), "Available");
-                notifyDataChanged();
-                return true;
+        return NotificationBatch.run(() -> {
+            Rental rental = getRentalById(rentalId);
+            if (rental == null || !rental.markAsReturned()) {
+                return false;
             }
-        }
-        return false;
+            // Free the rental's indexes and period before the vehicle's status moves on
+            closeRental(rental);
+            vehicleController.transitionStatus(rental.getVehicleNumber(), VehicleStatus.RENTED, VehicleStatus.AVAILABLE);
+            notifyDataChanged(RentalChangeEvent.updated(rentalId,
+                EnumSet.of(RentalChangeEvent.Field.STATUS, RentalChangeEvent.Field.RETURN_DATE)));
+            return true;
+        });
     }
 
     /**
@@ -141,37 +399,410 @@ public class RentalController {
      * @return true if report successful, false if rental not found or not active
      */
     public boolean reportRentalAsLost(String rentalId, LocalDateTime giveBackDate) {
-        for (Rental rental : rentals) {
-            if (rental.getRentalId().equals(rentalId) && "Active".equals(rental.getStatus())) {
-                rental.markAsLost(giveBackDate);
-                vehicleController.updateVehicleStatus(rental.getVehicleId(), "Lost");
-                notifyDataChanged();
-                return true;
+        return NotificationBatch.run(() -> {
+            Rental rental = getRentalById(rentalId);
+            if (rental == null || !rental.markAsLost(giveBackDate)) {
+                return false;
             }
+            // Free the rental's indexes and period before the vehicle's status moves on
+            closeRental(rental);
+            vehicleController.transitionStatus(rental.getVehicleNumber(), VehicleStatus.RENTED, VehicleStatus.LOST);
+            notifyDataChanged(RentalChangeEvent.updated(rentalId,
+                EnumSet.of(RentalChangeEvent.Field.STATUS, RentalChangeEvent.Field.GIVE_BACK_DATE)));
+            return true;
+        });
+    }
+    
+    /**
+     * Reserve a vehicle for a future period without taking it out of service.
+     * The period must not overlap a rental or another reservation of the
+     * vehicle; several non-overlapping reservations can be held at once.
+     * @param customerUsername Username of the customer
+     * @param vehicleId ID of the vehicle to reserve
+     * @param startDate Start of the reserved period, not in the past
+     * @param endDate End of the reserved period
+     * @return Reservation if successful, null if the vehicle does not exist or
+     *         is lost, the dates are invalid, the period is already booked, or
+     *         the customer already holds MAX_BOOKED_RESERVATIONS reservations
+     */
+    public Reservation reserveVehicle(String customerUsername, String vehicleId,
+                                      LocalDateTime startDate, LocalDateTime endDate) {
+        long vehicleNumber = Vehicle.parseId(vehicleId);
+        Vehicle vehicle = vehicleController.getVehicleById(vehicleNumber);
+        if (vehicle == null || vehicle.getStatus() == VehicleStatus.LOST) {
+            return null;
         }
-        return false;
+        if (startDate == null || endDate == null || !endDate.isAfter(startDate)
+                || startDate.isBefore(LocalDateTime.now())) {
+            return null;
+        }
+        Reservation reservation;
+        synchronized (this) {
+            CustomerRentals customer = rentalsByCustomer.computeIfAbsent(customerUsername, k -> new CustomerRentals());
+            if (customer.booked.size() >= MAX_BOOKED_RESERVATIONS) {
+                return null;
+            }
+            VehicleSchedule schedule = scheduleFor(vehicleNumber);
+            if (!isFree(vehicleNumber, schedule, startDate, endDate)) {
+                return null;
+            }
+            reservation = new Reservation(nextReservationNumber++, customerUsername, vehicleNumber,
+                vehicle.getVehicleName(), startDate, endDate);
+            schedule.add(startDate, endDate, reservation);
+            reservations.put(reservation.getReservationNumber(), reservation);
+            customer.booked.add(reservation);
+        }
+        notifyDataChanged(RentalChangeEvent.added(reservation.getReservationId()));
+        return reservation;
+    }
+    
+    /**
+     * Turn a reservation into a rental when the customer picks the vehicle up.
+     * The rental covers the reserved period.
+     * @param reservationId ID of the reservation
+     * @return Rental if successful, null if the reservation is not booked, the
+     *         vehicle is not available, or the customer is at MAX_ACTIVE_RENTALS
+     */
+    public Rental startReservation(String reservationId) {
+        Reservation reservation = getReservationById(reservationId);
+        if (reservation == null || !"Booked".equals(reservation.getStatus())) {
+            return null;
+        }
+        return rent(reservation.getCustomerUsername(), reservation.getVehicleId(),
+            reservation.getStartDate(), reservation.getEndDate(), reservation);
+    }
+    
+    /**
+     * Cancel a reservation and free its period.
+     * @param reservationId ID of the reservation
+     * @return true if cancelled, false if not found or no longer booked
+     */
+    public boolean cancelReservation(String reservationId) {
+        Reservation reservation;
+        synchronized (this) {
+            reservation = reservations.get(Reservation.parseId(reservationId));
+            if (reservation == null || !reservation.markAsCancelled()) {
+                return false;
+            }
+            VehicleSchedule schedule = schedules.get(reservation.getVehicleNumber());
+            if (schedule != null) {
+                schedule.remove(reservation.getStartDate(), reservation);
+                if (schedule.isEmpty()) {
+                    schedules.remove(reservation.getVehicleNumber());
+                }
+            }
+            CustomerRentals customer = rentalsByCustomer.get(reservation.getCustomerUsername());
+            if (customer != null) {
+                customer.booked.remove(reservation);
+            }
+        }
+        notifyDataChanged(RentalChangeEvent.updated(reservation.getReservationId(),
+            EnumSet.of(RentalChangeEvent.Field.STATUS)));
+        return true;
+    }
+    
+    /**
+     * Get reservation by ID.
+     * @param reservationId ID of the reservation
+     * @return Reservation if found, null otherwise
+     */
+    public synchronized Reservation getReservationById(String reservationId) {
+        long reservationNumber = Reservation.parseId(reservationId);
+        return reservationNumber == 0 ? null : reservations.get(reservationNumber);
+    }
+    
+    /**
+     * Get the reservations a customer still has booked.
+     * @param customerUsername Username of the customer
+     * @return Booked reservations in booking order, at most MAX_BOOKED_RESERVATIONS
+     */
+    public synchronized List<Reservation> getBookedReservationsByCustomer(String customerUsername) {
+        CustomerRentals customer = rentalsByCustomer.get(customerUsername);
+        return customer == null ? new ArrayList<>() : new ArrayList<>(customer.booked);
+    }
+    
+    /**
+     * Get the booked reservations of a vehicle that have not ended yet.
+     * @param vehicleId ID of the vehicle
+     * @return Reservations in time order
+     */
+    public synchronized List<Reservation> getUpcomingReservations(String vehicleId) {
+        List<Reservation> upcoming = new ArrayList<>();
+        long vehicleNumber = Vehicle.parseId(vehicleId);
+        VehicleSchedule schedule = vehicleNumber == 0 ? null : schedules.get(vehicleNumber);
+        if (schedule != null) {
+            for (VehicleSchedule.Booking booking : schedule.after(LocalDateTime.now())) {
+                if (booking.owner instanceof Reservation) {
+                    upcoming.add((Reservation) booking.owner);
+                }
+            }
+        }
+        return upcoming;
+    }
+    
+    /**
+     * Check whether a vehicle has no rental or reservation in a period.
+     * A rental that is overdue keeps the vehicle busy until it is returned.
+     * Answered from the vehicle's schedule in O(log n), without scanning rentals.
+     * @param vehicleId ID of the vehicle
+     * @param from Start of the period
+     * @param to End of the period, exclusive
+     * @return true if the vehicle is free for the whole period
+     * @throws IllegalArgumentException if the period is empty or reversed
+     */
+    public boolean isVehicleFree(String vehicleId, LocalDateTime from, LocalDateTime to) {
+        if (from == null || to == null || !to.isAfter(from)) {
+            throw new IllegalArgumentException("Period must end after it starts");
+        }
+        return isVehicleFree(Vehicle.parseId(vehicleId), from, to);
+    }
+    
+    private synchronized boolean isVehicleFree(long vehicleNumber, LocalDateTime from, LocalDateTime to) {
+        VehicleSchedule schedule = schedules.get(vehicleNumber);
+        return isFree(vehicleNumber, schedule == null ? new VehicleSchedule() : schedule, from, to);
+    }
+    
+    /**
+     * Conflict check shared by renting and reserving; caller holds the monitor
+     */
+    private boolean isFree(long vehicleNumber, VehicleSchedule schedule, LocalDateTime from, LocalDateTime to) {
+        if (schedule.findConflict(from, to) != null) {
+            return false;
+        }
+        Rental active = activeByVehicle.get(vehicleNumber);
+        if (active != null) {
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime busyUntil = active.getExpectedReturnDate().isAfter(now) ? active.getExpectedReturnDate() : now;
+            if (from.isBefore(busyUntil)) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Get the schedule of a vehicle, creating it if needed; caller holds the monitor
+     */
+    private VehicleSchedule scheduleFor(long vehicleNumber) {
+        VehicleSchedule schedule = schedules.get(vehicleNumber);
+        if (schedule == null) {
+            schedule = new VehicleSchedule();
+            schedules.put(vehicleNumber, schedule);
+        }
+        return schedule;
     }
     
     /**
      * Get rental by ID.
+     * Rental numbers are handed out in booking order and rentals are never
+     * removed, so the number doubles as the rental's position in the snapshot
+     * and the lookup is a direct index however long the history grows.
      * @param rentalId ID of the rental
      * @return Rental object if found, null otherwise
      */
     public Rental getRentalById(String rentalId) {
-        for (Rental rental : rentals) {
-            if (rental.getRentalId().equals(rentalId)) {
-                return rental;
+        long position = Rental.parseId(rentalId) - FIRST_RENTAL_ID;
+        PersistentVector<Rental> slots = rentals.slots();
+        if (position < 0 || position >= slots.size()) {
+            return null;
+        }
+        return slots.get((int) position);
+    }
+    
+    /**
+     * Move a rental that was just returned or reported lost to its customer's
+     * closed segment, drop it from the vehicle index and schedule, update the
+     * aggregates and publish a new snapshot version
+     */
+    private synchronized void closeRental(Rental rental) {
+        CustomerRentals customer = rentalsByCustomer.get(rental.getCustomerUsername());
+        if (customer != null) {
+            customer.close(rental);
+        }
+        if (activeByVehicle.get(rental.getVehicleNumber()) == rental) {
+            activeByVehicle.remove(rental.getVehicleNumber());
+        }
+        VehicleSchedule schedule = schedules.get(rental.getVehicleNumber());
+        if (schedule != null) {
+            schedule.remove(rental.getRentalDate(), rental);
+            if (schedule.isEmpty()) {
+                schedules.remove(rental.getVehicleNumber());
+            }
+        }
+        VehicleType type = activeVehicleTypes.remove(rental.getRentalNumber());
+        if (type != null) {
+            activeCount--;
+            if ("Returned".equals(rental.getStatus())) {
+                long cents = Math.round(rental.getTotalCost() * 100);
+                returnedCount++;
+                revenueCents += cents;
+                revenueCentsByType[type.ordinal()] += cents;
+                if (customer != null) {
+                    customer.revenueCents += cents;
+                }
+                rollup.addReturn(rental.getReturnDate(), cents);
+            } else {
+                lostCount++;
+                rollup.addLost(rental.getRentalDate());
             }
         }
-        return null;
+        rentals = rentals.withVersion(rentals.getVersion() + 1);
     }
     
     /**
      * Get all rentals in the system.
+     * Prefer getSnapshot() when the list is only read.
      * @return List of all rentals
      */
     public List<Rental> getAllRentals() {
-        return new ArrayList<>(rentals);
+        return rentals.toList();
+    }
+    
+    /**
+     * Get an immutable view of all rentals in booking order, without copying
+     * or locking. Its version changes whenever a rental is added, returned or
+     * reported lost, so callers can skip work when it matches the last one seen.
+     * @return Current rentals snapshot
+     */
+    public Snapshot<Rental> getSnapshot() {
+        return rentals;
+    }
+    
+    /**
+     * Stream the current rentals without copying or locking.
+     * @return Sequential stream over a snapshot
+     */
+    public Stream<Rental> stream() {
+        return rentals.stream();
+    }
+    
+    /**
+     * Stream the current rentals in parallel, split across the common fork-join pool.
+     * @return Parallel stream over a snapshot
+     */
+    public Stream<Rental> parallelStream() {
+        return rentals.parallelStream();
+    }
+    
+    /**
+     * Get one page of rentals, optionally for one customer.
+     * Paging by rental ID jumps straight to the cursor position; paging by
+     * date resumes from a sorted index. A customer filter pages through that
+     * customer's own rentals only: by binary search into their active and
+     * closed segments, or from their own date index. Either way a page costs
+     * O(log n + pageSize).
+     * @param customerUsername Customer whose rentals to return, or null for all
+     * @param sort Order to page through the rentals in
+     * @param cursor Cursor from the previous page, or null for the first page
+     * @param pageSize Maximum number of rentals to return
+     * @return Page of rentals with the cursor for the next one
+     * @throws IllegalArgumentException if the cursor is malformed or belongs to another order
+     */
+    public Page<Rental> getRentalsPage(String customerUsername, SortKey sort, String cursor, int pageSize) {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("Page size must be at least 1");
+        }
+        CustomerRentals customer = null;
+        if (customerUsername != null) {
+            customer = rentalsByCustomer.get(customerUsername);
+            if (customer == null) {
+                return new Page<>(new ArrayList<>(), null);
+            }
+        }
+        List<Rental> items = new ArrayList<>();
+        if (sort == SortKey.RENTAL_DATE) {
+            DateKey after = null;
+            if (cursor != null) {
+                int separator = cursor.indexOf('|');
+                if (!cursor.startsWith("D") || separator < 0) {
+                    throw new IllegalArgumentException("Invalid cursor: " + cursor);
+                }
+                try {
+                    after = new DateKey(LocalDateTime.parse(cursor.substring(1, separator)),
+                        Long.parseLong(cursor.substring(separator + 1)));
+                } catch (RuntimeException e) {
+                    throw new IllegalArgumentException("Invalid cursor: " + cursor);
+                }
+            }
+            if (customer == null) {
+                collect(after == null ? rentalsByDate : rentalsByDate.tailMap(after, false), items, pageSize);
+            } else {
+                synchronized (this) {
+                    collect(after == null ? customer.byDate : customer.byDate.tailMap(after, false), items, pageSize);
+                }
+            }
+        } else {
+            // Rental number of the last rental on the previous page
+            long after = FIRST_RENTAL_ID - 1;
+            if (cursor != null) {
+                if (!cursor.startsWith("I")) {
+                    throw new IllegalArgumentException("Invalid cursor: " + cursor);
+                }
+                try {
+                    after = Long.parseLong(cursor.substring(1));
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Invalid cursor: " + cursor);
+                }
+            }
+            if (customer != null) {
+                synchronized (this) {
+                    // Merge the two segments from the cursor on, without copying either
+                    int a = firstAfter(customer.active, after);
+                    int c = firstAfter(customer.closed, after);
+                    while (items.size() < pageSize && (a < customer.active.size() || c < customer.closed.size())) {
+                        if (c == customer.closed.size() || (a < customer.active.size()
+                                && customer.active.get(a).getRentalNumber() < customer.closed.get(c).getRentalNumber())) {
+                            items.add(customer.active.get(a++));
+                        } else {
+                            items.add(customer.closed.get(c++));
+                        }
+                    }
+                }
+            } else {
+                PersistentVector<Rental> slots = rentals.slots();
+                // Checked before narrowing, so a huge cursor cannot wrap round to an earlier page
+                if (after < FIRST_RENTAL_ID || after - FIRST_RENTAL_ID + 1 < slots.size()) {
+                    int start = after < FIRST_RENTAL_ID ? 0 : (int) (after - FIRST_RENTAL_ID + 1);
+                    for (int i = start; i < slots.size() && items.size() < pageSize; i++) {
+                        items.add(slots.get(i));
+                    }
+                }
+            }
+        }
+        if (items.size() < pageSize) {
+            return new Page<>(items, null);
+        }
+        Rental last = items.get(items.size() - 1);
+        String next = sort == SortKey.RENTAL_DATE
+            ? "D" + last.getRentalDate() + "|" + last.getRentalNumber()
+            : "I" + last.getRentalNumber();
+        return new Page<>(items, next);
+    }
+    
+    private static void collect(Map<DateKey, Rental> source, List<Rental> items, int pageSize) {
+        for (Rental rental : source.values()) {
+            if (items.size() == pageSize) {
+                break;
+            }
+            items.add(rental);
+        }
+    }
+    
+    /**
+     * @return Index of the first rental numbered above rentalNumber in a list in booking order
+     */
+    private static int firstAfter(List<Rental> history, long rentalNumber) {
+        int low = 0;
+        int high = history.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (history.get(mid).getRentalNumber() <= rentalNumber) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
     }
     
     /**
@@ -194,27 +825,30 @@ public class RentalController {
      * @return List of rentals for the customer
      */
     public List<Rental> getRentalsByCustomer(String customerUsername) {
-        List<Rental> customerRentals = new ArrayList<>();
-        for (Rental rental : rentals) {
-            if (rental.getCustomerUsername().equals(customerUsername)) {
-                customerRentals.add(rental);
-            }
+        CustomerRentals customer = rentalsByCustomer.get(customerUsername);
+        if (customer == null) {
+            return new ArrayList<>();
+        }
+        synchronized (this) {
+            return customer.all();
         }
-        return customerRentals;
     }
     
     /**
      * Get active rental for a specific vehicle.
+     * Answered from an index of active rentals by vehicle, so checking every
+     * vehicle in the fleet takes time linear in the fleet size.
      * @param vehicleId ID of the vehicle
      * @return Rental object if vehicle is currently rented, null otherwise
      */
     public Rental getActiveRentalForVehicle(String vehicleId) {
-        for (Rental rental : rentals) {
-            if (rental.getVehicleId().equals(vehicleId) && "Active".equals(rental.getStatus())) {
-                return rental;
-            }
+        long vehicleNumber = Vehicle.parseId(vehicleId);
+        if (vehicleNumber == 0) {
+            return null;
+        }
+        synchronized (this) {
+            return activeByVehicle.get(vehicleNumber);
         }
-        return null;
     }
     
     /**
@@ -223,28 +857,113 @@ public class RentalController {
      * @return List of active rentals for the customer
      */
     public List<Rental> getActiveRentalsByCustomer(String customerUsername) {
-        List<Rental> active = new ArrayList<>();
-        for (Rental rental : rentals) {
-            if (rental.getCustomerUsername().equals(customerUsername) && 
-                "Active".equals(rental.getStatus())) {
-                active.add(rental);
-            }
+        CustomerRentals customer = rentalsByCustomer.get(customerUsername);
+        if (customer == null) {
+            return new ArrayList<>();
         }
-        return active;
+        synchronized (this) {
+            return new ArrayList<>(customer.active);
+        }
+    }
+    
+    /**
+     * Get the number of active rentals a customer holds, without listing them.
+     * Bookings still being processed already count.
+     * @param customerUsername Username of the customer
+     * @return Active rental count, at most MAX_ACTIVE_RENTALS
+     */
+    public int getActiveRentalCount(String customerUsername) {
+        CustomerRentals customer = rentalsByCustomer.get(customerUsername);
+        return customer == null ? 0 : customer.activeCount.get();
     }
     
     /**
-     * Calculate total revenue from all returned rentals.
+     * Get total revenue from all returned rentals.
+     * Kept as a running total, so this does not depend on the history length.
      * @return Total revenue amount
      */
     public double getTotalRevenue() {
-        double total = 0;
-        for (Rental rental : rentals) {
-            if ("Returned".equals(rental.getStatus())) {
-                total += rental.getTotalCost();
-            }
+        return getTotalRevenueCents() / 100.0;
+    }
+    
+    /**
+     * Get total revenue from all returned rentals, exactly.
+     * @return Total revenue in cents
+     */
+    public synchronized long getTotalRevenueCents() {
+        return revenueCents;
+    }
+    
+    /**
+     * Get revenue from returned rentals, split by the type of vehicle rented.
+     * @return Revenue per vehicle type; types without revenue map to 0
+     */
+    public synchronized Map<VehicleType, Double> getRevenueByVehicleType() {
+        Map<VehicleType, Double> revenue = new EnumMap<>(VehicleType.class);
+        for (VehicleType type : VehicleType.values()) {
+            revenue.put(type, revenueCentsByType[type.ordinal()] / 100.0);
         }
-        return total;
+        return revenue;
+    }
+    
+    /**
+     * Get revenue from one customer's returned rentals.
+     * @param customerUsername Username of the customer
+     * @return Revenue amount, 0 if the customer has not returned any rental
+     */
+    public double getRevenueByCustomer(String customerUsername) {
+        CustomerRentals customer = rentalsByCustomer.get(customerUsername);
+        if (customer == null) {
+            return 0;
+        }
+        synchronized (this) {
+            return customer.revenueCents / 100.0;
+        }
+    }
+    
+    /**
+     * Get rental activity over time, one bucket per hour, day or month.
+     * Read from running rollups, so the cost depends on the number of buckets
+     * rather than the number of rentals. Revenue and returns count where the
+     * rental was returned; bookings and losses where it started.
+     * @param granularity Bucket size
+     * @param from Start of the range
+     * @param to End of the range, inclusive
+     * @return Buckets in time order, including empty ones
+     * @throws IllegalArgumentException if the range is reversed or spans more than MAX_TREND_BUCKETS buckets
+     */
+    public List<RevenueBucket> getRevenueTrend(Granularity granularity, LocalDateTime from, LocalDateTime to) {
+        if (granularity == null || from == null || to == null) {
+            throw new IllegalArgumentException("Granularity and range are required");
+        }
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("Range ends before it starts");
+        }
+        if (RevenueRollup.key(granularity, to) - RevenueRollup.key(granularity, from) >= MAX_TREND_BUCKETS) {
+            throw new IllegalArgumentException("Range spans more than " + MAX_TREND_BUCKETS + " buckets");
+        }
+        synchronized (this) {
+            return rollup.buckets(granularity, from, to);
+        }
+    }
+    
+    /**
+     * Get the number of rentals in a status.
+     * @param status "Active", "Returned" or "Lost"
+     * @return Number of rentals currently in that status
+     * @throws IllegalArgumentException if the status is not one of the above
+     */
+    public synchronized int getRentalCountByStatus(String status) {
+        if ("Active".equals(status)) {
+            return activeCount;
+        }
+        if ("Returned".equals(status)) {
+            return returnedCount;
+        }
+        if ("Lost".equals(status)) {
+            return lostCount;
+        }
+        throw new IllegalArgumentException("Unknown rental status: " + status);
     }
     
     /**
@@ -257,10 +976,28 @@ public class RentalController {
     
     /**
      * Reset rentals to initial state.
+     * Numbering restarts at FIRST_RENTAL_ID together with the empty snapshot,
+     * which keeps getRentalById() positions valid.
      */
     public void resetRentals() {
-        rentals.clear();
-        nextRentalId = 1001;
+        synchronized (this) {
+            rentals = new Snapshot<>(PersistentVector.empty(), 0, rentals.getVersion() + 1);
+            rentalsByDate.clear();
+            rentalsByCustomer.clear();
+            activeByVehicle.clear();
+            activeVehicleTypes.clear();
+            revenueCents = 0;
+            activeCount = 0;
+            returnedCount = 0;
+            lostCount = 0;
+            Arrays.fill(revenueCentsByType, 0);
+            rollup.clear();
+            schedules.clear();
+            reservations.clear();
+            nextReservationNumber = 1;
+            nextRentalId.set(FIRST_RENTAL_ID);
+        }
+        notifyDataChanged(RentalChangeEvent.reset());
     }
 }
 
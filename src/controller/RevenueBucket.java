@@ -0,0 +1,66 @@
+package controller;
+
+import java.time.LocalDateTime;
+
+/**
+ * Rental activity within one hour, day or month.
+ * Bookings and losses count towards the bucket of the rental's start date;
+ * returns and their revenue towards the bucket of the return date.
+ */
+public class RevenueBucket {
+    private final LocalDateTime start;
+    private final long revenueCents;
+    private final int bookedCount;
+    private final int returnedCount;
+    private final int lostCount;
+
+    RevenueBucket(LocalDateTime start, long revenueCents, int bookedCount, int returnedCount, int lostCount) {
+        this.start = start;
+        this.revenueCents = revenueCents;
+        this.bookedCount = bookedCount;
+        this.returnedCount = returnedCount;
+        this.lostCount = lostCount;
+    }
+
+    /**
+     * @return First instant of the bucket
+     */
+    public LocalDateTime getStart() {
+        return start;
+    }
+
+    public double getRevenue() {
+        return revenueCents / 100.0;
+    }
+
+    public long getRevenueCents() {
+        return revenueCents;
+    }
+
+    /**
+     * @return Rentals starting in this bucket
+     */
+    public int getBookedCount() {
+        return bookedCount;
+    }
+
+    /**
+     * @return Rentals returned in this bucket
+     */
+    public int getReturnedCount() {
+        return returnedCount;
+    }
+
+    /**
+     * @return Rentals starting in this bucket that were later reported lost
+     */
+    public int getLostCount() {
+        return lostCount;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s revenue %.2f, booked %d, returned %d, lost %d",
+            start, getRevenue(), bookedCount, returnedCount, lostCount);
+    }
+}
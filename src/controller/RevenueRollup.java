@@ -0,0 +1,107 @@
+package controller;
+
+import controller.RentalController.Granularity;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * Rental activity rolled up into hour, day and month buckets.
+ * Every event is added to its bucket at all three levels, so a chart at any
+ * granularity reads one entry per bucket shown, however many rentals fall
+ * inside. Buckets are keyed by a running index: hours and days since the
+ * epoch, and months since year 0.
+ * Not thread-safe; RentalController guards it with its monitor.
+ */
+class RevenueRollup {
+    private static class Counts {
+        long revenueCents;
+        int booked;
+        int returned;
+        int lost;
+    }
+
+    private final List<TreeMap<Long, Counts>> levels = new ArrayList<>();
+
+    RevenueRollup() {
+        for (int i = 0; i < Granularity.values().length; i++) {
+            levels.add(new TreeMap<>());
+        }
+    }
+
+    void addBooking(LocalDateTime rentalDate) {
+        for (Granularity granularity : Granularity.values()) {
+            counts(granularity, rentalDate).booked++;
+        }
+    }
+
+    void addReturn(LocalDateTime returnDate, long revenueCents) {
+        for (Granularity granularity : Granularity.values()) {
+            Counts counts = counts(granularity, returnDate);
+            counts.returned++;
+            counts.revenueCents += revenueCents;
+        }
+    }
+
+    void addLost(LocalDateTime rentalDate) {
+        for (Granularity granularity : Granularity.values()) {
+            counts(granularity, rentalDate).lost++;
+        }
+    }
+
+    void clear() {
+        for (TreeMap<Long, Counts> level : levels) {
+            level.clear();
+        }
+    }
+
+    /**
+     * Get every bucket overlapping a time range, including empty ones.
+     * @param granularity Bucket size
+     * @param from Start of the range
+     * @param to End of the range, inclusive
+     * @return Buckets in time order
+     */
+    List<RevenueBucket> buckets(Granularity granularity, LocalDateTime from, LocalDateTime to) {
+        long first = key(granularity, from);
+        long last = key(granularity, to);
+        TreeMap<Long, Counts> level = levels.get(granularity.ordinal());
+        List<RevenueBucket> buckets = new ArrayList<>();
+        for (long key = first; key <= last; key++) {
+            Counts counts = level.get(key);
+            buckets.add(counts == null
+                ? new RevenueBucket(start(granularity, key), 0, 0, 0, 0)
+                : new RevenueBucket(start(granularity, key), counts.revenueCents, counts.booked,
+                    counts.returned, counts.lost));
+        }
+        return buckets;
+    }
+
+    private Counts counts(Granularity granularity, LocalDateTime time) {
+        return levels.get(granularity.ordinal()).computeIfAbsent(key(granularity, time), k -> new Counts());
+    }
+
+    static long key(Granularity granularity, LocalDateTime time) {
+        switch (granularity) {
+            case HOUR:
+                return time.toLocalDate().toEpochDay() * 24 + time.getHour();
+            case DAY:
+                return time.toLocalDate().toEpochDay();
+            default:
+                return time.getYear() * 12L + time.getMonthValue() - 1;
+        }
+    }
+
+    static LocalDateTime start(Granularity granularity, long key) {
+        switch (granularity) {
+            case HOUR:
+                return LocalDate.ofEpochDay(Math.floorDiv(key, 24)).atTime(Math.floorMod(key, 24), 0);
+            case DAY:
+                return LocalDate.ofEpochDay(key).atStartOfDay();
+            default:
+                return LocalDate.of((int) Math.floorDiv(key, 12), Math.floorMod(key, 12) + 1, 1).atStartOfDay();
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package controller;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Immutable, versioned view of a controller's records.
+ * Taking a snapshot is O(1) and never copies: it shares structure with the
+ * controller's persistent vector, so later changes do not affect it. The
+ * version grows with every change, including changes to a record's fields,
+ * so comparing versions is a cheap "has anything changed" check. Membership
+ * and order are frozen; the records themselves are the live objects.
+ * Streams split the underlying vector by index range along its 32-element
+ * leaves, so parallel streams fan out without copying the records first.
+ * @param <T> Record type
+ */
+public final class Snapshot<T> implements Iterable<T> {
+    private final PersistentVector<T> slots;
+    private final int size;
+    private final long version;
+
+    /**
+     * @param slots Records in order; null slots are removed records and are skipped
+     * @param size Number of non-null slots
+     * @param version Version of the controller state
+     */
+    Snapshot(PersistentVector<T> slots, int size, long version) {
+        this.slots = slots;
+        this.size = size;
+        this.version = version;
+    }
+
+    /**
+     * @return Version of the state this snapshot was taken from
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Copy the records into a new list.
+     * @return Mutable list of the records in order
+     */
+    public List<T> toList() {
+        List<T> list = new ArrayList<>(size);
+        for (T record : this) {
+            list.add(record);
+        }
+        return list;
+    }
+
+    PersistentVector<T> slots() {
+        return slots;
+    }
+
+    /**
+     * Same records under a new version, for changes that do not add or remove any
+     */
+    Snapshot<T> withVersion(long newVersion) {
+        return new Snapshot<>(slots, size, newVersion);
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<T>() {
+            private int index;
+            private Object[] leaf;
+            private T next = advance();
+
+            @SuppressWarnings("unchecked")
+            private T advance() {
+                while (index < slots.size()) {
+                    if (leaf == null || (index & 31) == 0) {
+                        leaf = slots.leafFor(index);
+                    }
+                    T record = (T) leaf[index++ & 31];
+                    if (record != null) {
+                        return record;
+                    }
+                }
+                return null;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public T next() {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                T record = next;
+                next = advance();
+                return record;
+            }
+        };
+    }
+
+    /**
+     * Split by slot range. Reports SIZED and SUBSIZED when the vector has no
+     * removed slots, since every range's size is then exact.
+     */
+    @Override
+    public Spliterator<T> spliterator() {
+        return new SlotSpliterator<>(slots, 0, slots.size(), size == slots.size());
+    }
+
+    /**
+     * @return Sequential stream over the records in order
+     */
+    public Stream<T> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * @return Parallel stream over the records
+     */
+    public Stream<T> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+
+    private static final class SlotSpliterator<T> implements Spliterator<T> {
+        private static final int LEAF = 32;
+
+        private final PersistentVector<T> slots;
+        private int index;
+        private final int fence;
+        // No removed slots, so the slot count is the exact record count
+        private final boolean dense;
+
+        SlotSpliterator(PersistentVector<T> slots, int origin, int fence, boolean dense) {
+            this.slots = slots;
+            this.index = origin;
+            this.fence = fence;
+            this.dense = dense;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean tryAdvance(Consumer<? super T> action) {
+            while (index < fence) {
+                T record = (T) slots.leafFor(index)[index++ & (LEAF - 1)];
+                if (record != null) {
+                    action.accept(record);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void forEachRemaining(Consumer<? super T> action) {
+            // Walk a leaf at a time rather than descending the trie per element
+            int i = index;
+            index = fence;
+            while (i < fence) {
+                Object[] leaf = slots.leafFor(i);
+                int end = Math.min(fence, (i & -LEAF) + LEAF);
+                for (; i < end; i++) {
+                    T record = (T) leaf[i & (LEAF - 1)];
+                    if (record != null) {
+                        action.accept(record);
+                    }
+                }
+            }
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            int remaining = fence - index;
+            if (remaining <= LEAF) {
+                return null;
+            }
+            // Split on a leaf boundary so each half walks whole leaves
+            int mid = (index + remaining / 2) & -LEAF;
+            if (mid <= index) {
+                mid = index + LEAF;
+            }
+            SlotSpliterator<T> prefix = new SlotSpliterator<>(slots, index, mid, dense);
+            index = mid;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return fence - index;
+        }
+
+        @Override
+        public int characteristics() {
+            int characteristics = ORDERED | IMMUTABLE | NONNULL;
+            return dense ? characteristics | SIZED | SUBSIZED : characteristics;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "Snapshot[version=" + version + ", size=" + size + "]";
+    }
+}
@@ -0,0 +1,22 @@
+package controller;
+
+/**
+ * Handle for a registered listener.
+ * The controllers only hold listeners weakly; the subscription holds its
+ * listener strongly, so a listener stays registered while its subscription is
+ * reachable and until it is closed. Tie it to the owner's lifecycle, e.g.
+ * close it when a frame is disposed.
+ */
+public interface Subscription extends AutoCloseable {
+
+    /**
+     * Stop delivering events to the listener. Calling it again has no effect.
+     */
+    @Override
+    void close();
+
+    /**
+     * @return true until the subscription is closed or its listener dropped
+     */
+    boolean isActive();
+}
@@ -0,0 +1,104 @@
+package controller;
+
+import java.util.Collections;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Describes one change to the fleet: which vehicles were added, updated or
+ * removed, and for updates which fields changed. Listeners use it to patch
+ * single table rows instead of reloading everything.
+ */
+public class VehicleChangeEvent {
+
+    /**
+     * Kind of change
+     */
+    public enum Kind {
+        ADDED, UPDATED, REMOVED,
+        /** The whole fleet was replaced; reload everything */
+        RESET
+    }
+
+    /**
+     * Vehicle fields an update can change
+     */
+    public enum Field {
+        NAME, TYPE, PRICE, STATUS
+    }
+
+    private final Kind kind;
+    private final List<String> vehicleIds;
+    private final Set<Field> changedFields;
+
+    public VehicleChangeEvent(Kind kind, List<String> vehicleIds, Set<Field> changedFields) {
+        this.kind = kind;
+        this.vehicleIds = Collections.unmodifiableList(vehicleIds);
+        this.changedFields = changedFields.isEmpty()
+            ? Collections.emptySet()
+            : Collections.unmodifiableSet(EnumSet.copyOf(changedFields));
+    }
+
+    static VehicleChangeEvent added(List<String> vehicleIds) {
+        return new VehicleChangeEvent(Kind.ADDED, vehicleIds, EnumSet.allOf(Field.class));
+    }
+
+    static VehicleChangeEvent updated(String vehicleId, Set<Field> changedFields) {
+        return new VehicleChangeEvent(Kind.UPDATED, List.of(vehicleId), changedFields);
+    }
+
+    static VehicleChangeEvent removed(String vehicleId) {
+        return new VehicleChangeEvent(Kind.REMOVED, List.of(vehicleId), EnumSet.noneOf(Field.class));
+    }
+
+    static VehicleChangeEvent reset() {
+        return new VehicleChangeEvent(Kind.RESET, List.of(), EnumSet.allOf(Field.class));
+    }
+
+    /**
+     * Merge two events into one that covers both, for listeners whose queue
+     * overflowed. Events of the same kind combine their IDs and fields;
+     * anything else becomes a RESET.
+     */
+    static VehicleChangeEvent merge(VehicleChangeEvent first, VehicleChangeEvent second) {
+        if (first.kind != second.kind || first.kind == Kind.RESET) {
+            return reset();
+        }
+        Set<String> ids = new LinkedHashSet<>(first.vehicleIds);
+        ids.addAll(second.vehicleIds);
+        Set<Field> fields = EnumSet.noneOf(Field.class);
+        fields.addAll(first.changedFields);
+        fields.addAll(second.changedFields);
+        return new VehicleChangeEvent(first.kind, new ArrayList<>(ids), fields);
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * @return IDs of the affected vehicles; empty for RESET
+     */
+    public List<String> getVehicleIds() {
+        return vehicleIds;
+    }
+
+    /**
+     * @return Fields changed by an update; every field for ADDED and RESET
+     */
+    public Set<Field> getChangedFields() {
+        return changedFields;
+    }
+
+    public boolean hasChanged(Field field) {
+        return changedFields.contains(field);
+    }
+
+    @Override
+    public String toString() {
+        return kind + " " + vehicleIds + " " + changedFields;
+    }
+}
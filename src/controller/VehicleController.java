@@ -1,41 +1,144 @@
 package controller;
 
 import model.Vehicle;
+import model.VehicleStatus;
+import model.VehicleType;
 import java.util.ArrayList;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 /**
  * Controller for managing vehicle operations.
  * Handles CRUD operations for vehicles in the rental system.
+ * Safe to use from several threads: writes are serialized by a StampedLock,
+ * point reads and counts are optimistic, and scans run under the read lock.
+ * <p>
+ * By default every vehicle is a Vehicle object referenced from each index.
+ * A controller built on a ColumnarFleetStore keeps the fleet in the store's
+ * columns instead and holds no per-vehicle objects: status and type come
+ * from the store's row bitsets, names are matched through its dictionary,
+ * and price ranges and suggestions scan the price column. Lookups return
+ * detached Vehicle views, so changes must go through the controller.
  */
 public class VehicleController {
-    private List<Vehicle> vehicles;
-    private int nextVehicleId;
+    // Vehicles keyed by vehicle number; listing order comes from the snapshot
+    private final LongObjectMap<Vehicle> vehicles;
+    // Column store holding the fleet in columnar mode, or null. When set,
+    // vehicles and the object indexes below stay empty.
+    private final ColumnarFleetStore columns;
+    // Next vehicle number; blocks are reserved with getAndAdd()
+    private final AtomicLong nextVehicleNumber;
     
-    // Listeners for data changes
-    private List<VehicleDataListener> listeners;
+    // Secondary indexes, kept in step with vehicles by index()/unindex()
+    private FleetBitmap fleetBitmap;
+    private int[][] countsByStatusAndType;
+    private VehicleNameIndex nameIndex;
+    private VehicleSuggestionTrie suggestionTrie;
+    private VehiclePriceIndex priceIndex;
+    
+    // Published view of the fleet: replaced under the write lock, read without it.
+    // In columnar mode it has no slots and only carries the size and version.
+    private volatile Snapshot<Vehicle> snapshot;
+    // Slot of each vehicle number in the snapshot's vector; deleted vehicles leave a null slot
+    private final LongIntMap snapshotSlots;
+    
+    // Guards vehicles and every index. Not reentrant, so public
+    // methods never call each other while holding it.
+    private final StampedLock lock = new StampedLock();
+    
+    /** Statuses shown to customers as available */
+    public static final List<VehicleStatus> AVAILABLE_STATUSES =
+        List.of(VehicleStatus.AVAILABLE, VehicleStatus.UNDER_MAINTENANCE);
+    
+    // Listeners for data changes; each is called on its own delivery thread
+    private final ListenerRegistry<VehicleDataListener, VehicleChangeEvent> listeners;
+    
+    /**
+     * Orders available to getVehiclesPage()
+     */
+    public enum SortKey {
+        /** Oldest vehicle first, i.e. the order of getAllVehicles() */
+        VEHICLE_ID,
+        /** Cheapest first, vehicle ID breaking ties */
+        PRICE
+    }
     
     /**
      * Interface for listening to vehicle data changes
      */
     public interface VehicleDataListener {
-        void onVehicleDataChanged();
+        void onVehicleDataChanged(VehicleChangeEvent event);
     }
     
     public VehicleController() {
-        this.vehicles = new ArrayList<>();
-        this.nextVehicleId = 1;
-        this.listeners = new ArrayList<>();
-        initializeDefaultVehicles();
+        this(null);
+    }
+    
+    /**
+     * Create a controller that keeps the fleet in a columnar store.
+     * The controller takes the store over: from then on it must only be
+     * changed through the controller. An empty store gets the sample fleet.
+     * @param columns Store to run on, or null to keep vehicles as objects
+     */
+    public VehicleController(ColumnarFleetStore columns) {
+        this.vehicles = new LongObjectMap<>();
+        this.columns = columns;
+        this.fleetBitmap = new FleetBitmap();
+        this.countsByStatusAndType = new int[VehicleStatus.values().length][VehicleType.values().length];
+        this.nameIndex = new VehicleNameIndex();
+        this.suggestionTrie = new VehicleSuggestionTrie();
+        this.priceIndex = new VehiclePriceIndex();
+        this.snapshot = new Snapshot<>(PersistentVector.empty(), 0, 0);
+        this.snapshotSlots = new LongIntMap();
+        this.nextVehicleNumber = new AtomicLong(1);
+        this.listeners = new ListenerRegistry<>("vehicle-listener",
+            VehicleDataListener::onVehicleDataChanged, VehicleChangeEvent::merge);
+        if (columns != null && columns.size() > 0) {
+            columns.countInto(countsByStatusAndType);
+            this.snapshot = new Snapshot<>(PersistentVector.empty(), columns.size(), 0);
+            this.nextVehicleNumber.set(columns.lastVehicleNumber() + 1);
+        } else {
+            if (columns != null) {
+                columns.clear();
+            }
+            initializeDefaultVehicles();
+        }
+    }
+    
+    /**
+     * Add a listener for vehicle data changes.
+     * It is called on its own thread; a full queue coalesces events.
+     * @return Subscription to close when the listener is no longer needed
+     */
+    public Subscription addVehicleDataListener(VehicleDataListener listener) {
+        return addVehicleDataListener(listener, ListenerRegistry.DEFAULT_CAPACITY, OverflowPolicy.COALESCE);
     }
     
     /**
-     * Add a listener for vehicle data changes
+     * Add a listener for vehicle data changes with its own queue settings.
+     * @param listener Listener to add
+     * @param capacity Maximum events queued for the listener
+     * @param policy What to do when the queue is full
+     * @return Subscription to close when the listener is no longer needed.
+     *         The listener is only held weakly, so keep the subscription (or
+     *         the listener) reachable for as long as it should get events.
      */
-    public void addVehicleDataListener(VehicleDataListener listener) {
-        if (listener != null && !listeners.contains(listener)) {
-            listeners.add(listener);
+    public Subscription addVehicleDataListener(VehicleDataListener listener, int capacity, OverflowPolicy policy) {
+        if (listener == null) {
+            throw new IllegalArgumentException("Listener cannot be null");
         }
+        return listeners.add(listener, capacity, policy);
     }
     
     /**
@@ -46,48 +149,230 @@ public class VehicleController {
     }
     
     /**
-     * Notify all listeners that vehicle data has changed
+     * Get queue and lag metrics for every vehicle data listener.
+     * @return One entry per listener
+     */
+    public List<ListenerStats> getListenerStats() {
+        return listeners.stats();
+    }
+    
+    /**
+     * Get the number of live vehicle data listeners. Should stay flat over a
+     * long session; growth means subscriptions are not being closed.
+     * @return Listener count
+     */
+    public int getListenerCount() {
+        return listeners.size();
+    }
+    
+    /**
+     * Queue a change for all listeners.
+     * Held back until the end of an open NotificationBatch on this thread.
+     */
+    private void notifyDataChanged(VehicleChangeEvent event) {
+        NotificationBatch.deliver(() -> listeners.publish(event));
+    }
+    
+    /**
+     * Run a short read with an optimistic stamp, falling back to the read lock
+     * if a writer got in. The reader may see torn state, so it must only do
+     * map lookups and array reads and must not hand out partial results.
+     * @param reader Read to run
+     * @return Result of the read
      */
-    private void notifyDataChanged() {
-        for (VehicleDataListener listener : listeners) {
+    private <T> T readOptimistic(Supplier<T> reader) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
             try {
-                listener.onVehicleDataChanged();
-            } catch (Exception e) {
-                // Ignore listener errors
+                T result = reader.get();
+                if (lock.validate(stamp)) {
+                    return result;
+                }
+            } catch (RuntimeException e) {
+                // Raced with a writer; retry under the read lock
             }
         }
+        return readLocked(reader);
+    }
+    
+    /**
+     * Run a read under the shared read lock.
+     * @param reader Read to run
+     * @return Result of the read
+     */
+    private <T> T readLocked(Supplier<T> reader) {
+        long stamp = lock.readLock();
+        try {
+            return reader.get();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+    
+    /**
+     * Run a change under the exclusive write lock.
+     * @param writer Change to run
+     * @return Result of the change
+     */
+    private <T> T writeLocked(Supplier<T> writer) {
+        long stamp = lock.writeLock();
+        try {
+            return writer.get();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
     }
     
     /**
      * Initialize some sample vehicles for demonstration.
      */
     private void initializeDefaultVehicles() {
-    vehicles.add(new Vehicle("V001", "Toyota Camry", "Car", 50.0, "Available"));
-    vehicles.add(new Vehicle("V002", "Honda Civic", "Car", 45.0, "Available"));
-    vehicles.add(new Vehicle("V003", "Yamaha NMAX", "Motorbike", 25.0, "Available"));
-    vehicles.add(new Vehicle("V004", "Ford F-150", "Truck", 80.0, "Available"));
-    vehicles.add(new Vehicle("V005", "Tesla Model 3", "Car", 100.0, "Rented"));
-    vehicles.add(new Vehicle("V006", "Kawasaki Ninja", "Motorbike", 35.0, "Available"));
-    vehicles.add(new Vehicle("V007", "Isuzu D-Max", "Truck", 75.0, "Available"));
+    putVehicle(new Vehicle("V001", "Toyota Camry", VehicleType.CAR, 50.0, VehicleStatus.AVAILABLE));
+    putVehicle(new Vehicle("V002", "Honda Civic", VehicleType.CAR, 45.0, VehicleStatus.AVAILABLE));
+    putVehicle(new Vehicle("V003", "Yamaha NMAX", VehicleType.MOTORBIKE, 25.0, VehicleStatus.AVAILABLE));
+    putVehicle(new Vehicle("V004", "Ford F-150", VehicleType.TRUCK, 80.0, VehicleStatus.AVAILABLE));
+    putVehicle(new Vehicle("V005", "Tesla Model 3", VehicleType.CAR, 100.0, VehicleStatus.RENTED));
+    putVehicle(new Vehicle("V006", "Kawasaki Ninja", VehicleType.MOTORBIKE, 35.0, VehicleStatus.AVAILABLE));
+    putVehicle(new Vehicle("V007", "Isuzu D-Max", VehicleType.TRUCK, 75.0, VehicleStatus.AVAILABLE));
     
     // Additional vehicles - only Car, Motorbike, and Truck types
-    vehicles.add(new Vehicle("V008", "Toyota Corolla", "Car", 48.0, "Available"));
-    vehicles.add(new Vehicle("V009", "Honda Accord", "Car", 65.0, "Available"));
-    vehicles.add(new Vehicle("V010", "Suzuki Hayate", "Motorbike", 20.0, "Under Maintenance"));
-    vehicles.add(new Vehicle("V011", "Chevrolet Silverado", "Truck", 85.0, "Available"));
-    vehicles.add(new Vehicle("V012", "Toyota Hilux", "Truck", 70.0, "Available"));
-    vehicles.add(new Vehicle("V013", "Nissan Altima", "Car", 55.0, "Rented"));
-    vehicles.add(new Vehicle("V014", "Kawasaki Z650", "Motorbike", 40.0, "Available"));
-    vehicles.add(new Vehicle("V015", "Ford Mustang", "Car", 120.0, "Available"));
-    vehicles.add(new Vehicle("V016", "Ford Ranger", "Truck", 78.0, "Available"));
-    vehicles.add(new Vehicle("V017", "Yamaha XMAX", "Motorbike", 30.0, "Available"));
-    vehicles.add(new Vehicle("V018", "Hyundai Elantra", "Car", 42.0, "Available"));
-    vehicles.add(new Vehicle("V019", "Honda PCX", "Motorbike", 28.0, "Under Maintenance"));
-    vehicles.add(new Vehicle("V020", "Chevrolet Colorado", "Truck", 72.0, "Available"));
-    
-    nextVehicleId = 21;
+    putVehicle(new Vehicle("V008", "Toyota Corolla", VehicleType.CAR, 48.0, VehicleStatus.AVAILABLE));
+    putVehicle(new Vehicle("V009", "Honda Accord", VehicleType.CAR, 65.0, VehicleStatus.AVAILABLE));
+    putVehicle(new Vehicle("V010", "Suzuki Hayate", VehicleType.MOTORBIKE, 20.0, VehicleStatus.UNDER_MAINTENANCE));
+    putVehicle(new Vehicle("V011", "Chevrolet Silverado", VehicleType.TRUCK, 85.0, VehicleStatus.AVAILABLE));
+    putVehicle(new Vehicle("V012", "Toyota Hilux", VehicleType.TRUCK, 70.0, VehicleStatus.AVAILABLE));
+    putVehicle(new Vehicle("V013", "Nissan Altima", VehicleType.CAR, 55.0, VehicleStatus.RENTED));
+    putVehicle(new Vehicle("V014", "Kawasaki Z650", VehicleType.MOTORBIKE, 40.0, VehicleStatus.AVAILABLE));
+    putVehicle(new Vehicle("V015", "Ford Mustang", VehicleType.CAR, 120.0, VehicleStatus.AVAILABLE));
+    putVehicle(new Vehicle("V016", "Ford Ranger", VehicleType.TRUCK, 78.0, VehicleStatus.AVAILABLE));
+    putVehicle(new Vehicle("V017", "Yamaha XMAX", VehicleType.MOTORBIKE, 30.0, VehicleStatus.AVAILABLE));
+    putVehicle(new Vehicle("V018", "Hyundai Elantra", VehicleType.CAR, 42.0, VehicleStatus.AVAILABLE));
+    putVehicle(new Vehicle("V019", "Honda PCX", VehicleType.MOTORBIKE, 28.0, VehicleStatus.UNDER_MAINTENANCE));
+    putVehicle(new Vehicle("V020", "Chevrolet Colorado", VehicleType.TRUCK, 72.0, VehicleStatus.AVAILABLE));
+    
+    nextVehicleNumber.set(21);
 }
     
+    /**
+     * Store a vehicle under its ID.
+     * @param vehicle Vehicle to store
+     */
+    private void putVehicle(Vehicle vehicle) {
+        if (columns != null) {
+            columns.add(vehicle);
+            countsByStatusAndType[vehicle.getStatus().ordinal()][vehicle.getVehicleType().ordinal()]++;
+            resize(1);
+            return;
+        }
+        vehicles.put(vehicle.getVehicleNumber(), vehicle);
+        fleetBitmap.assignSlot(vehicle);
+        index(vehicle);
+        nameIndex.add(vehicle);
+        Snapshot<Vehicle> current = snapshot;
+        snapshotSlots.put(vehicle.getVehicleNumber(), current.slots().size());
+        snapshot = new Snapshot<>(current.slots().append(vehicle), current.size() + 1, current.getVersion() + 1);
+    }
+    
+    /**
+     * Take a vehicle out of the published snapshot. Caller holds the write lock.
+     * Once more than half the slots are empty the vector is rebuilt without them.
+     * @param vehicle Vehicle to remove
+     */
+    private void unpublish(Vehicle vehicle) {
+        Snapshot<Vehicle> current = snapshot;
+        int slot = snapshotSlots.remove(vehicle.getVehicleNumber());
+        PersistentVector<Vehicle> slots = current.slots().set(slot, null);
+        int size = current.size() - 1;
+        if (slots.size() > 64 && size < slots.size() / 2) {
+            PersistentVector<Vehicle> compacted = PersistentVector.empty();
+            for (Vehicle remaining : new Snapshot<>(slots, size, 0)) {
+                snapshotSlots.put(remaining.getVehicleNumber(), compacted.size());
+                compacted = compacted.append(remaining);
+            }
+            slots = compacted;
+        }
+        snapshot = new Snapshot<>(slots, size, current.getVersion() + 1);
+    }
+    
+    /**
+     * Publish a new snapshot version after a vehicle's fields changed.
+     * Caller holds the write lock.
+     */
+    private void republish() {
+        snapshot = snapshot.withVersion(snapshot.getVersion() + 1);
+    }
+    
+    /**
+     * Publish a new size and version in columnar mode. Caller holds the write lock.
+     * @param change Number of vehicles added, or minus the number removed
+     */
+    private void resize(int change) {
+        snapshot = new Snapshot<>(snapshot.slots(), snapshot.size() + change, snapshot.getVersion() + 1);
+    }
+    
+    /**
+     * Move a vehicle to a new status in columnar mode. Caller holds the write lock.
+     * @param vehicle View of the vehicle as stored
+     * @param status New status
+     */
+    private void setColumnStatus(Vehicle vehicle, VehicleStatus status) {
+        if (vehicle.getStatus() == status) {
+            return;
+        }
+        columns.setStatus(vehicle.getVehicleNumber(), status);
+        int type = vehicle.getVehicleType().ordinal();
+        countsByStatusAndType[vehicle.getStatus().ordinal()][type]--;
+        countsByStatusAndType[status.ordinal()][type]++;
+        republish();
+    }
+    
+    /**
+     * Add a vehicle to the status, type, suggestion and price indexes and counters.
+     * Must be called after any change to type or price is applied. The status is
+     * read once, so a concurrent transitionStatus() cannot split the indexes.
+     * @param vehicle Vehicle to index
+     */
+    private void index(Vehicle vehicle) {
+        VehicleStatus status = vehicle.getStatus();
+        fleetBitmap.mark(vehicle, status);
+        countsByStatusAndType[status.ordinal()][vehicle.getVehicleType().ordinal()]++;
+        suggestionTrie.add(vehicle, status);
+        priceIndex.add(vehicle, status);
+    }
+    
+    /**
+     * Remove a vehicle from the status, type, suggestion and price indexes and counters,
+     * using the status it was indexed under.
+     * Must be called before any change to type or price is applied.
+     * @param vehicle Vehicle to unindex
+     */
+    private void unindex(Vehicle vehicle) {
+        VehicleStatus status = fleetBitmap.markedStatus(vehicle);
+        if (status == null) {
+            return;
+        }
+        fleetBitmap.unmark(vehicle);
+        countsByStatusAndType[status.ordinal()][vehicle.getVehicleType().ordinal()]--;
+        suggestionTrie.remove(vehicle);
+        priceIndex.remove(vehicle);
+    }
+    
+    /**
+     * Move a vehicle to its current status in the indexes if it has changed
+     * since it was indexed. Caller holds the write lock.
+     * @param vehicle Vehicle to re-index
+     */
+    private void syncStatus(Vehicle vehicle) {
+        if (vehicles.get(vehicle.getVehicleNumber()) != vehicle) {
+            return;
+        }
+        if (fleetBitmap.markedStatus(vehicle) != vehicle.getStatus()) {
+            unindex(vehicle);
+            index(vehicle);
+            republish();
+        }
+    }
+    
     /**
      * Add a new vehicle to the system.
      * @param name Vehicle name
@@ -96,11 +381,14 @@ public class VehicleController {
      * @param status Vehicle status (Available, Rented, Under Maintenance)
      * @return true if vehicle added successfully
      */
-    public boolean addVehicle(String name, String type, double pricePerDay, String status) {
-        String vehicleId = String.format("V%03d", nextVehicleId++);
-        Vehicle vehicle = new Vehicle(vehicleId, name, type, pricePerDay, status);
-        vehicles.add(vehicle);
-        notifyDataChanged();
+    public boolean addVehicle(String name, VehicleType type, double pricePerDay, VehicleStatus status) {
+        String vehicleId = writeLocked(() -> {
+            Vehicle vehicle = new Vehicle(null, name, type, pricePerDay, status);
+            vehicle.setVehicleNumber(nextVehicleNumber.getAndIncrement());
+            putVehicle(vehicle);
+            return vehicle.getVehicleId();
+        });
+        notifyDataChanged(VehicleChangeEvent.added(List.of(vehicleId)));
         return true;
     }
     
@@ -111,8 +399,67 @@ public class VehicleController {
      * @param pricePerDay Price per day rental rate
      * @return true if vehicle added successfully
      */
-    public boolean addVehicle(String name, String type, double pricePerDay) {
-        return addVehicle(name, type, pricePerDay, "Available");
+    public boolean addVehicle(String name, VehicleType type, double pricePerDay) {
+        return addVehicle(name, type, pricePerDay, VehicleStatus.AVAILABLE);
+    }
+    
+    /**
+     * Add many vehicles at once, e.g. when onboarding a branch.
+     * IDs are taken from one reserved block, every index is updated under a
+     * single write lock, and listeners are notified once for the whole batch.
+     * @param newVehicles Vehicles to add; each is copied under a new ID, so
+     *        the objects passed in are left untouched
+     * @return Number of vehicles added
+     * @throws IllegalArgumentException if a vehicle has no name, type or status,
+     *         or its price is not a finite number greater than 0
+     */
+    public int addVehicles(Collection<Vehicle> newVehicles) {
+        List<Vehicle> copies = new ArrayList<>(newVehicles.size());
+        for (Vehicle vehicle : newVehicles) {
+            if (vehicle.getVehicleName() == null || vehicle.getVehicleType() == null
+                    || vehicle.getStatus() == null) {
+                throw new IllegalArgumentException("Vehicle name, type and status are required");
+            }
+            if (!Double.isFinite(vehicle.getPricePerDay()) || vehicle.getPricePerDay() <= 0) {
+                throw new IllegalArgumentException("Invalid price for " + vehicle.getVehicleName()
+                    + ": " + vehicle.getPricePerDay());
+            }
+            copies.add(new Vehicle(null, vehicle.getVehicleName(), vehicle.getVehicleType(),
+                vehicle.getPricePerDay(), vehicle.getStatus()));
+        }
+        if (copies.isEmpty()) {
+            return 0;
+        }
+        List<String> vehicleIds = writeLocked(() -> {
+            List<String> ids = new ArrayList<>(copies.size());
+            long number = nextVehicleNumber.getAndAdd(copies.size());
+            for (Vehicle vehicle : copies) {
+                vehicle.setVehicleNumber(number++);
+                putVehicle(vehicle);
+                ids.add(vehicle.getVehicleId());
+            }
+            return ids;
+        });
+        notifyDataChanged(VehicleChangeEvent.added(vehicleIds));
+        return vehicleIds.size();
+    }
+    
+    /**
+     * Import vehicles from CSV text with columns name, type, price per day and
+     * an optional status. Lines are parsed as they are read and the whole file
+     * is added as one batch, so a bad line leaves the fleet unchanged.
+     * @param csv CSV source; not closed by this method
+     * @return Number of vehicles imported
+     * @throws IOException if the source cannot be read
+     * @throws IllegalArgumentException if a line is malformed; the message names the line
+     */
+    public int importVehicles(Reader csv) throws IOException {
+        VehicleCsvReader reader = new VehicleCsvReader(csv);
+        List<Vehicle> imported = new ArrayList<>();
+        for (Vehicle vehicle = reader.next(); vehicle != null; vehicle = reader.next()) {
+            imported.add(vehicle);
+        }
+        return addVehicles(imported);
     }
     
     /**
@@ -124,18 +471,14 @@ public class VehicleController {
      * @param status New vehicle status (Available, Rented, Under Maintenance)
      * @return true if update successful, false if vehicle not found
      */
-    public boolean updateVehicle(String vehicleId, String name, String type, double pricePerDay, String status) {
-        for (Vehicle vehicle : vehicles) {
-            if (vehicle.getVehicleId().equals(vehicleId)) {
-                vehicle.setVehicleName(name);
-                vehicle.setVehicleType(type);
-                vehicle.setPricePerDay(pricePerDay);
-                vehicle.setStatus(status);
-                notifyDataChanged();
-                return true;
-            }
+    public boolean updateVehicle(String vehicleId, String name, VehicleType type, double pricePerDay,
+                                 VehicleStatus status) {
+        Set<VehicleChangeEvent.Field> changed =
+            writeLocked(() -> applyUpdate(vehicleId, name, type, pricePerDay, status));
+        if (changed != null && !changed.isEmpty()) {
+            notifyDataChanged(VehicleChangeEvent.updated(vehicleId, changed));
         }
-        return false;
+        return changed != null;
     }
     
     /**
@@ -146,17 +489,69 @@ public class VehicleController {
      * @param pricePerDay New price per day
      * @return true if update successful, false if vehicle not found
      */
-    public boolean updateVehicle(String vehicleId, String name, String type, double pricePerDay) {
-        for (Vehicle vehicle : vehicles) {
-            if (vehicle.getVehicleId().equals(vehicleId)) {
-                vehicle.setVehicleName(name);
-                vehicle.setVehicleType(type);
-                vehicle.setPricePerDay(pricePerDay);
-                notifyDataChanged();
-                return true;
-            }
+    public boolean updateVehicle(String vehicleId, String name, VehicleType type, double pricePerDay) {
+        Set<VehicleChangeEvent.Field> changed =
+            writeLocked(() -> applyUpdate(vehicleId, name, type, pricePerDay, null));
+        if (changed != null && !changed.isEmpty()) {
+            notifyDataChanged(VehicleChangeEvent.updated(vehicleId, changed));
+        }
+        return changed != null;
+    }
+    
+    /**
+     * Apply an update and re-index the vehicle. Caller holds the write lock.
+     * @param status New status, or null to keep the current one
+     * @return Fields that changed, or null if the vehicle does not exist
+     */
+    private Set<VehicleChangeEvent.Field> applyUpdate(String vehicleId, String name, VehicleType type,
+                                                      double pricePerDay, VehicleStatus status) {
+        long number = Vehicle.parseId(vehicleId);
+        Vehicle vehicle = columns != null ? columns.findById(number) : vehicles.get(number);
+        if (vehicle == null) {
+            return null;
+        }
+        Set<VehicleChangeEvent.Field> changed = EnumSet.noneOf(VehicleChangeEvent.Field.class);
+        if (!vehicle.getVehicleName().equals(name)) {
+            changed.add(VehicleChangeEvent.Field.NAME);
+        }
+        if (vehicle.getVehicleType() != type) {
+            changed.add(VehicleChangeEvent.Field.TYPE);
+        }
+        if (vehicle.getPricePerDay() != pricePerDay) {
+            changed.add(VehicleChangeEvent.Field.PRICE);
+        }
+        if (status != null && vehicle.getStatus() != status) {
+            changed.add(VehicleChangeEvent.Field.STATUS);
+        }
+        if (changed.isEmpty()) {
+            return changed;
+        }
+        if (columns != null) {
+            countsByStatusAndType[vehicle.getStatus().ordinal()][vehicle.getVehicleType().ordinal()]--;
+            columns.update(number, name, type, pricePerDay);
+            VehicleStatus newStatus = status != null ? status : vehicle.getStatus();
+            columns.setStatus(number, newStatus);
+            countsByStatusAndType[newStatus.ordinal()][type.ordinal()]++;
+            republish();
+            return changed;
+        }
+        boolean renamed = !vehicle.getVehicleName().equals(name);
+        if (renamed) {
+            nameIndex.remove(vehicle);
+        }
+        unindex(vehicle);
+        vehicle.setVehicleName(name);
+        vehicle.setVehicleType(type);
+        vehicle.setPricePerDay(pricePerDay);
+        if (status != null) {
+            vehicle.setStatus(status);
+        }
+        index(vehicle);
+        if (renamed) {
+            nameIndex.add(vehicle);
         }
-        return false;
+        republish();
+        return changed;
     }
     
     /**
@@ -165,11 +560,30 @@ public class VehicleController {
      * @return true if deletion successful, false if vehicle not found
      */
     public boolean deleteVehicle(String vehicleId) {
-        boolean removed = vehicles.removeIf(vehicle -> vehicle.getVehicleId().equals(vehicleId));
-        if (removed) {
-            notifyDataChanged();
+        boolean deleted = writeLocked(() -> {
+            if (columns != null) {
+                Vehicle removed = columns.remove(Vehicle.parseId(vehicleId));
+                if (removed == null) {
+                    return false;
+                }
+                countsByStatusAndType[removed.getStatus().ordinal()][removed.getVehicleType().ordinal()]--;
+                resize(-1);
+                return true;
+            }
+            Vehicle removed = vehicles.remove(Vehicle.parseId(vehicleId));
+            if (removed == null) {
+                return false;
+            }
+            unindex(removed);
+            nameIndex.remove(removed);
+            fleetBitmap.releaseSlot(removed);
+            unpublish(removed);
+            return true;
+        });
+        if (deleted) {
+            notifyDataChanged(VehicleChangeEvent.removed(vehicleId));
         }
-        return removed;
+        return deleted;
     }
     
     /**
@@ -178,20 +592,196 @@ public class VehicleController {
      * @return Vehicle object if found, null otherwise
      */
     public Vehicle getVehicleById(String vehicleId) {
-        for (Vehicle vehicle : vehicles) {
-            if (vehicle.getVehicleId().equals(vehicleId)) {
-                return vehicle;
-            }
+        return getVehicleById(Vehicle.parseId(vehicleId));
+    }
+    
+    /**
+     * Get a vehicle by its number, without formatting or parsing an ID.
+     * In columnar mode the result is a detached view of the vehicle.
+     * @param vehicleNumber Number of the vehicle, e.g. 7 for "V007"
+     * @return Vehicle object if found, null otherwise
+     */
+    public Vehicle getVehicleById(long vehicleNumber) {
+        if (columns != null) {
+            return columns.findById(vehicleNumber);
         }
-        return null;
+        return readOptimistic(() -> vehicles.get(vehicleNumber));
     }
     
     /**
      * Get all vehicles in the system.
+     * Prefer getSnapshot() when the list is only read.
      * @return List of all vehicles
      */
     public List<Vehicle> getAllVehicles() {
-        return new ArrayList<>(vehicles);
+        if (columns != null) {
+            return readLocked(() -> columns.page(0, Integer.MAX_VALUE));
+        }
+        return snapshot.toList();
+    }
+    
+    /**
+     * Get an immutable view of the fleet in insertion order, without copying
+     * or locking. Its version changes whenever any vehicle is added, removed
+     * or changed, so callers can skip work when it matches the last one seen.
+     * In columnar mode the snapshot is built from views of every vehicle, so
+     * it costs O(n); use getVersion() to check for changes.
+     * @return Current fleet snapshot
+     */
+    public Snapshot<Vehicle> getSnapshot() {
+        if (columns == null) {
+            return snapshot;
+        }
+        return readLocked(() -> {
+            PersistentVector<Vehicle> slots = PersistentVector.empty();
+            for (Vehicle vehicle : columns.page(0, Integer.MAX_VALUE)) {
+                slots = slots.append(vehicle);
+            }
+            return new Snapshot<>(slots, slots.size(), snapshot.getVersion());
+        });
+    }
+    
+    /**
+     * Get the fleet version, which changes whenever any vehicle is added,
+     * removed or changed.
+     * @return Current version
+     */
+    public long getVersion() {
+        return snapshot.getVersion();
+    }
+    
+    /**
+     * Stream the current fleet without copying or locking.
+     * @return Sequential stream over a snapshot
+     */
+    public Stream<Vehicle> stream() {
+        return getSnapshot().stream();
+    }
+    
+    /**
+     * Stream the current fleet in parallel, split across the common fork-join pool.
+     * @return Parallel stream over a snapshot
+     */
+    public Stream<Vehicle> parallelStream() {
+        return getSnapshot().parallelStream();
+    }
+    
+    /**
+     * Get one page of vehicles.
+     * @param sort Order to page through the fleet in
+     * @param cursor Cursor from the previous page, or null for the first page
+     * @param pageSize Maximum number of vehicles to return
+     * @return Page of vehicles with the cursor for the next one
+     * @throws IllegalArgumentException if the cursor is malformed or belongs to another order
+     */
+    public Page<Vehicle> getVehiclesPage(SortKey sort, String cursor, int pageSize) {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("Page size must be at least 1");
+        }
+        List<Vehicle> items;
+        if (sort == SortKey.PRICE) {
+            double afterPrice = 0;
+            long afterNumber = 0;
+            if (cursor != null) {
+                int separator = cursor.indexOf('|');
+                if (!cursor.startsWith("P") || separator < 0) {
+                    throw new IllegalArgumentException("Invalid cursor: " + cursor);
+                }
+                try {
+                    afterPrice = Double.parseDouble(cursor.substring(1, separator));
+                    afterNumber = Long.parseLong(cursor.substring(separator + 1));
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Invalid cursor: " + cursor);
+                }
+            }
+            double fromPrice = afterPrice;
+            long fromNumber = afterNumber;
+            items = readLocked(() -> columns != null
+                ? columns.priceRange(0, Double.MAX_VALUE, null, null, fromPrice, fromNumber, pageSize)
+                : priceIndex.range(0, Double.MAX_VALUE, null, null, fromPrice, fromNumber, pageSize));
+        } else {
+            long afterNumber = 0;
+            if (cursor != null) {
+                if (!cursor.startsWith("I")) {
+                    throw new IllegalArgumentException("Invalid cursor: " + cursor);
+                }
+                try {
+                    afterNumber = Long.parseLong(cursor.substring(1));
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Invalid cursor: " + cursor);
+                }
+            }
+            long fromNumber = afterNumber;
+            items = columns != null
+                ? readLocked(() -> columns.page(fromNumber, pageSize))
+                : pageById(snapshot.slots(), afterNumber, pageSize);
+        }
+        if (items.size() < pageSize) {
+            return new Page<>(items, null);
+        }
+        Vehicle last = items.get(items.size() - 1);
+        String next = sort == SortKey.PRICE
+            ? "P" + last.getPricePerDay() + "|" + last.getVehicleNumber()
+            : "I" + last.getVehicleNumber();
+        return new Page<>(items, next);
+    }
+    
+    /**
+     * Read a page of vehicles by ID from a snapshot vector, which holds them
+     * in ascending ID order with nulls where vehicles were deleted.
+     * Binary search finds the first ID after the cursor, so the cost does not
+     * depend on how deep into the fleet the page is.
+     */
+    private static List<Vehicle> pageById(PersistentVector<Vehicle> slots, long afterNumber, int pageSize) {
+        int low = 0;
+        int high = slots.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            int probe = mid;
+            while (probe < high && slots.get(probe) == null) {
+                probe++;
+            }
+            if (probe == high) {
+                high = mid;
+            } else if (slots.get(probe).getVehicleNumber() <= afterNumber) {
+                low = probe + 1;
+            } else {
+                high = mid;
+            }
+        }
+        List<Vehicle> items = new ArrayList<>(Math.min(pageSize, slots.size() - low));
+        for (int i = low; i < slots.size() && items.size() < pageSize; i++) {
+            Vehicle vehicle = slots.get(i);
+            if (vehicle != null) {
+                items.add(vehicle);
+            }
+        }
+        return items;
+    }
+    
+    /**
+     * Copy the fleet into a columnar store, e.g. to archive it or to start a
+     * columnar controller on it. The copy does not follow later changes.
+     * @return Store holding the current fleet in ID order
+     */
+    public ColumnarFleetStore toColumnarStore() {
+        if (columns != null) {
+            return readLocked(columns::copy);
+        }
+        Snapshot<Vehicle> fleet = snapshot;
+        ColumnarFleetStore store = new ColumnarFleetStore(fleet.size());
+        for (Vehicle vehicle : fleet) {
+            store.add(vehicle);
+        }
+        return store;
+    }
+    
+    /**
+     * Get the number of vehicles in the system.
+     * @return Fleet size
+     */
+    public int getVehicleCount() {
+        return snapshot.size();
     }
     
     /**
@@ -199,13 +789,24 @@ public class VehicleController {
      * @return List of available vehicles
      */
     public List<Vehicle> getAvailableVehicles() {
-        List<Vehicle> available = new ArrayList<>();
-        for (Vehicle vehicle : vehicles) {
-            if ("Available".equals(vehicle.getStatus()) || "Under Maintenance".equals(vehicle.getStatus())) {
-                available.add(vehicle);
-            }
+        if (columns != null) {
+            return readLocked(() -> columns.select(AVAILABLE_STATUSES, null,
+                Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, null, Integer.MAX_VALUE));
+        }
+        return readLocked(() -> fleetBitmap.select(fleetBitmap.mask(AVAILABLE_STATUSES, null)));
+    }
+    
+    /**
+     * Get vehicles with the given status.
+     * @param status Vehicle status to filter by
+     * @return List of vehicles with the specified status
+     */
+    public List<Vehicle> getVehiclesByStatus(VehicleStatus status) {
+        if (columns != null) {
+            return readLocked(() -> columns.select(List.of(status), null,
+                Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, null, Integer.MAX_VALUE));
         }
-        return available;
+        return readLocked(() -> fleetBitmap.select(fleetBitmap.mask(List.of(status), null)));
     }
     
     /**
@@ -213,14 +814,12 @@ public class VehicleController {
      * @param type Vehicle type to filter by
      * @return List of vehicles of the specified type
      */
-    public List<Vehicle> getVehiclesByType(String type) {
-        List<Vehicle> filtered = new ArrayList<>();
-        for (Vehicle vehicle : vehicles) {
-            if (vehicle.getVehicleType().equals(type)) {
-                filtered.add(vehicle);
-            }
+    public List<Vehicle> getVehiclesByType(VehicleType type) {
+        if (columns != null) {
+            return readLocked(() -> columns.select(null, type,
+                Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, null, Integer.MAX_VALUE));
         }
-        return filtered;
+        return readLocked(() -> fleetBitmap.select(fleetBitmap.mask(null, type)));
     }
     
     /**
@@ -229,31 +828,297 @@ public class VehicleController {
      * @return List of matching vehicles
      */
     public List<Vehicle> searchVehiclesByName(String nameSearch) {
-        List<Vehicle> results = new ArrayList<>();
-        String searchLower = nameSearch.toLowerCase();
-        for (Vehicle vehicle : vehicles) {
-            if (vehicle.getVehicleName().toLowerCase().contains(searchLower)) {
-                results.add(vehicle);
+        if (columns != null) {
+            return readLocked(() -> columns.select(null, null,
+                Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, nameSearch, Integer.MAX_VALUE));
+        }
+        return readLocked(() -> nameIndex.search(nameSearch, null));
+    }
+    
+    /**
+     * Search vehicles by name (case-insensitive), restricted by status and type.
+     * Scans whichever is smaller: the name index candidates or the status/type bitsets.
+     * @param nameSearch Search term for vehicle name
+     * @param statuses Statuses to include, or null for any status
+     * @param type Vehicle type to include, or null for any type
+     * @return List of matching vehicles
+     */
+    public List<Vehicle> searchVehiclesByName(String nameSearch, List<VehicleStatus> statuses, VehicleType type) {
+        return query(new VehicleQuery().nameContains(nameSearch).statuses(statuses).type(type));
+    }
+    
+    /**
+     * Run a combined fleet query.
+     * The planner starts from the most selective index (name trigrams, status,
+     * type or price), checks the remaining criteria on each candidate, and
+     * stops at the limit as soon as no further sorting is needed.
+     * In columnar mode the query is one pass over the store's bitsets and columns.
+     * @param query Query criteria
+     * @return List of matching vehicles
+     */
+    public List<Vehicle> query(VehicleQuery query) {
+        return readLocked(() -> runQuery(query));
+    }
+    
+    /**
+     * Plan and run a query. Caller holds the read lock.
+     */
+    private List<Vehicle> runQuery(VehicleQuery query) {
+        String name = query.getNameContains();
+        String searchLower = name == null ? null : name.toLowerCase();
+        List<VehicleStatus> statuses = query.getStatuses();
+        Set<VehicleStatus> statusSet = statuses == null ? null : EnumSet.noneOf(VehicleStatus.class);
+        if (statusSet != null) {
+            statusSet.addAll(statuses);
+        }
+        VehicleType type = query.getType();
+        VehicleQuery.SortOrder sortOrder = query.getSortOrder();
+        int limit = query.getLimit();
+        
+        if (columns != null) {
+            boolean unsorted = sortOrder == VehicleQuery.SortOrder.NONE;
+            List<Vehicle> results = columns.select(statusSet, type, query.getMinPrice(), query.getMaxPrice(),
+                name, unsorted ? limit : Integer.MAX_VALUE);
+            if (!unsorted) {
+                results.sort(comparatorFor(sortOrder));
+                if (results.size() > limit) {
+                    results = new ArrayList<>(results.subList(0, limit));
+                }
+            }
+            return results;
+        }
+        
+        Predicate<Vehicle> filter = vehicle ->
+            (statusSet == null || statusSet.contains(vehicle.getStatus()))
+                && (type == null || type == vehicle.getVehicleType())
+                && vehicle.getPricePerDay() >= query.getMinPrice()
+                && vehicle.getPricePerDay() <= query.getMaxPrice()
+                && (searchLower == null || nameIndex.matches(vehicle, searchLower));
+        
+        // Status and type criteria resolve exactly to a slot mask; compare its
+        // size with the name index candidates and start from the smaller
+        BitSet mask = null;
+        int estimate = vehicles.size();
+        if (statusSet != null || type != null) {
+            mask = fleetBitmap.mask(statusSet, type);
+            estimate = mask.cardinality();
+        }
+        boolean useNameIndex = false;
+        if (name != null) {
+            int nameEstimate = nameIndex.estimate(name);
+            if (nameEstimate < estimate) {
+                estimate = nameEstimate;
+                useNameIndex = true;
+            }
+        }
+        
+        // The price index yields rows already in price order, so it wins when
+        // the limit cuts the walk short or nothing narrower is available
+        boolean sortByPrice = sortOrder == VehicleQuery.SortOrder.PRICE_ASC
+            || sortOrder == VehicleQuery.SortOrder.PRICE_DESC;
+        boolean usePriceIndex = (sortByPrice && limit < estimate)
+            || (query.hasPriceRange() && estimate == vehicles.size());
+        boolean sorted = sortOrder == VehicleQuery.SortOrder.NONE || (usePriceIndex && sortByPrice);
+        int scanLimit = sorted ? limit : Integer.MAX_VALUE;
+        
+        List<Vehicle> results;
+        if (usePriceIndex) {
+            VehicleStatus status = statusSet != null && statusSet.size() == 1 ? statusSet.iterator().next() : null;
+            results = priceIndex.walk(query.getMinPrice(), query.getMaxPrice(), status, type,
+                sortOrder == VehicleQuery.SortOrder.PRICE_DESC, filter, scanLimit);
+        } else if (useNameIndex) {
+            results = nameIndex.search(name, filter, scanLimit);
+        } else if (mask != null) {
+            results = new ArrayList<>();
+            for (int slot = mask.nextSetBit(0); slot >= 0 && results.size() < scanLimit;
+                    slot = mask.nextSetBit(slot + 1)) {
+                Vehicle vehicle = fleetBitmap.get(slot);
+                if (filter.test(vehicle)) {
+                    results.add(vehicle);
+                }
+            }
+        } else {
+            results = new ArrayList<>();
+            for (Vehicle vehicle : snapshot) {
+                if (results.size() >= scanLimit) {
+                    break;
+                }
+                if (filter.test(vehicle)) {
+                    results.add(vehicle);
+                }
+            }
+        }
+        
+        if (!sorted) {
+            results.sort(comparatorFor(sortOrder));
+            if (results.size() > limit) {
+                results = new ArrayList<>(results.subList(0, limit));
             }
         }
         return results;
     }
     
+    private static Comparator<Vehicle> comparatorFor(VehicleQuery.SortOrder sortOrder) {
+        switch (sortOrder) {
+            case PRICE_ASC:
+                return Comparator.comparingDouble(Vehicle::getPricePerDay);
+            case PRICE_DESC:
+                return Comparator.comparingDouble(Vehicle::getPricePerDay).reversed();
+            default:
+                return Comparator.comparing(Vehicle::getVehicleName, String.CASE_INSENSITIVE_ORDER);
+        }
+    }
+    
+    /**
+     * Find vehicles whose price per day is within a range, cheapest first.
+     * @param minPrice Lowest price per day, inclusive
+     * @param maxPrice Highest price per day, inclusive
+     * @param type Vehicle type to include, or null for any type
+     * @param status Vehicle status to include, or null for any status
+     * @return List of matching vehicles sorted by price
+     */
+    public List<Vehicle> findByPriceRange(double minPrice, double maxPrice, VehicleType type, VehicleStatus status) {
+        return readLocked(() -> columns != null
+            ? columns.priceRange(minPrice, maxPrice, type, status, 0, 0, Integer.MAX_VALUE)
+            : priceIndex.range(minPrice, maxPrice, type, status, 0, 0, Integer.MAX_VALUE));
+    }
+    
+    /**
+     * Find one page of vehicles within a price range, cheapest first.
+     * Pass the price and ID of the last vehicle of the previous page to get
+     * the next one; pages stay stable while vehicles are added or removed.
+     * @param minPrice Lowest price per day, inclusive
+     * @param maxPrice Highest price per day, inclusive
+     * @param type Vehicle type to include, or null for any type
+     * @param status Vehicle status to include, or null for any status
+     * @param afterPrice Price of the last vehicle on the previous page
+     * @param afterVehicleId ID of the last vehicle on the previous page, or null for the first page
+     * @param pageSize Maximum number of vehicles to return
+     * @return Page of matching vehicles sorted by price
+     */
+    public List<Vehicle> findByPriceRange(double minPrice, double maxPrice, VehicleType type, VehicleStatus status,
+                                          double afterPrice, String afterVehicleId, int pageSize) {
+        long afterNumber = Vehicle.parseId(afterVehicleId);
+        return readLocked(() -> columns != null
+            ? columns.priceRange(minPrice, maxPrice, type, status, afterPrice, afterNumber, pageSize)
+            : priceIndex.range(minPrice, maxPrice, type, status, afterPrice, afterNumber, pageSize));
+    }
+    
+    /**
+     * Get the cheapest vehicles that can be rented right now.
+     * @param k Maximum number of vehicles to return
+     * @return Up to k available vehicles, cheapest first
+     */
+    public List<Vehicle> cheapestAvailable(int k) {
+        return readLocked(() -> columns != null
+            ? columns.priceRange(0, Double.MAX_VALUE, null, VehicleStatus.AVAILABLE, 0, 0, k)
+            : priceIndex.range(0, Double.MAX_VALUE, null, VehicleStatus.AVAILABLE, 0, 0, k));
+    }
+    
+    /**
+     * Suggest vehicles for a typed prefix of a vehicle name, a word in the
+     * name, or a vehicle type. Available vehicles come first, then cheapest.
+     * Cost depends on the prefix length, not the fleet size, except in
+     * columnar mode, where the store scans its rows.
+     * @param prefix Typed prefix (case-insensitive)
+     * @param limit Maximum number of suggestions (at most 10)
+     * @return Suggested vehicles, best first
+     */
+    public List<Vehicle> autocomplete(String prefix, int limit) {
+        if (prefix == null || prefix.trim().isEmpty()) {
+            return new ArrayList<>();
+        }
+        String trimmed = prefix.trim();
+        int capped = Math.min(limit, VehicleSuggestionTrie.MAX_SUGGESTIONS);
+        return readLocked(() -> columns != null
+            ? columns.suggest(trimmed, capped)
+            : suggestionTrie.suggest(trimmed, capped));
+    }
+    
     /**
-     * Update vehicle status.
+     * Update vehicle status unconditionally.
+     * Use transitionStatus() when the change depends on the current status.
      * @param vehicleId ID of the vehicle
-     * @param status New status ("Available" or "Rented")
+     * @param status New status
      * @return true if update successful
      */
-    public boolean updateVehicleStatus(String vehicleId, String status) {
-        for (Vehicle vehicle : vehicles) {
-            if (vehicle.getVehicleId().equals(vehicleId)) {
-                vehicle.setStatus(status);
-                notifyDataChanged();
+    public boolean updateVehicleStatus(String vehicleId, VehicleStatus status) {
+        // Previous status, or null if the vehicle does not exist
+        VehicleStatus previous = writeLocked(() -> {
+            if (columns != null) {
+                Vehicle vehicle = columns.findById(Vehicle.parseId(vehicleId));
+                if (vehicle != null) {
+                    setColumnStatus(vehicle, status);
+                }
+                return vehicle == null ? null : vehicle.getStatus();
+            }
+            Vehicle vehicle = vehicles.get(Vehicle.parseId(vehicleId));
+            if (vehicle == null) {
+                return null;
+            }
+            VehicleStatus old = vehicle.getStatus();
+            vehicle.setStatus(status);
+            syncStatus(vehicle);
+            return old;
+        });
+        if (previous == null) {
+            return false;
+        }
+        if (previous != status) {
+            notifyDataChanged(VehicleChangeEvent.updated(vehicleId, EnumSet.of(VehicleChangeEvent.Field.STATUS)));
+        }
+        return true;
+    }
+    
+    /**
+     * Atomically move a vehicle from one status to another.
+     * The decision is a compare-and-set on the vehicle itself, so when several
+     * threads race on the same transition exactly one of them succeeds; the
+     * indexes are brought up to date afterwards.
+     * @param vehicleId ID of the vehicle
+     * @param expected Status the vehicle must currently have
+     * @param next Status to move to
+     * @return true if this call made the transition
+     */
+    public boolean transitionStatus(String vehicleId, VehicleStatus expected, VehicleStatus next) {
+        return transitionStatus(Vehicle.parseId(vehicleId), expected, next);
+    }
+    
+    /**
+     * Atomically move a vehicle, given by number, from one status to another.
+     * @param vehicleNumber Number of the vehicle
+     * @param expected Status the vehicle must currently have
+     * @param next Status to move to
+     * @return true if this call made the transition
+     */
+    public boolean transitionStatus(long vehicleNumber, VehicleStatus expected, VehicleStatus next) {
+        if (columns != null) {
+            // No shared object to compare-and-set on; the write lock decides instead
+            boolean moved = writeLocked(() -> {
+                Vehicle vehicle = columns.findById(vehicleNumber);
+                if (vehicle == null || vehicle.getStatus() != expected) {
+                    return false;
+                }
+                setColumnStatus(vehicle, next);
                 return true;
+            });
+            if (moved) {
+                notifyDataChanged(VehicleChangeEvent.updated(Vehicle.formatId(vehicleNumber),
+                    EnumSet.of(VehicleChangeEvent.Field.STATUS)));
             }
+            return moved;
         }
-        return false;
+        Vehicle vehicle = getVehicleById(vehicleNumber);
+        if (vehicle == null || !vehicle.compareAndSetStatus(expected, next)) {
+            return false;
+        }
+        writeLocked(() -> {
+            syncStatus(vehicle);
+            return null;
+        });
+        notifyDataChanged(VehicleChangeEvent.updated(vehicle.getVehicleId(),
+            EnumSet.of(VehicleChangeEvent.Field.STATUS)));
+        return true;
     }
     
     /**
@@ -261,22 +1126,88 @@ public class VehicleController {
      * @return Number of available vehicles
      */
     public int getAvailableCount() {
-        int count = 0;
-        for (Vehicle vehicle : vehicles) {
-            if ("Available".equals(vehicle.getStatus()) || "Under Maintenance".equals(vehicle.getStatus())) {
-                count++;
+        return readOptimistic(() -> {
+            int count = 0;
+            for (VehicleType type : VehicleType.values()) {
+                count += availableCountByType(type);
             }
+            return count;
+        });
+    }
+    
+    /**
+     * Get count of available vehicles (Available or Under Maintenance) of one type.
+     * @param type Vehicle type
+     * @return Number of available vehicles of the type
+     */
+    public int getAvailableCountByType(VehicleType type) {
+        return readOptimistic(() -> availableCountByType(type));
+    }
+    
+    private int availableCountByType(VehicleType type) {
+        int count = 0;
+        for (VehicleStatus status : AVAILABLE_STATUSES) {
+            count += countsByStatusAndType[status.ordinal()][type.ordinal()];
         }
         return count;
     }
     
+    /**
+     * Get count of vehicles with the given status and type.
+     * @param status Vehicle status
+     * @param type Vehicle type
+     * @return Number of matching vehicles
+     */
+    public int getCount(VehicleStatus status, VehicleType type) {
+        return readOptimistic(() -> countsByStatusAndType[status.ordinal()][type.ordinal()]);
+    }
+    
+    /**
+     * Count vehicles with any of the statuses and the type, using the
+     * status and type bitsets (one OR/AND pass plus a popcount).
+     * @param statuses Statuses to include, or null for any status
+     * @param type Vehicle type to include, or null for any type
+     * @return Number of matching vehicles
+     */
+    public int countVehicles(List<VehicleStatus> statuses, VehicleType type) {
+        if (columns != null) {
+            Set<VehicleStatus> statusSet = EnumSet.noneOf(VehicleStatus.class);
+            statusSet.addAll(statuses != null ? statuses : List.of(VehicleStatus.values()));
+            return readOptimistic(() -> {
+                int count = 0;
+                for (VehicleStatus status : statusSet) {
+                    for (VehicleType candidate : VehicleType.values()) {
+                        if (type == null || type == candidate) {
+                            count += countsByStatusAndType[status.ordinal()][candidate.ordinal()];
+                        }
+                    }
+                }
+                return count;
+            });
+        }
+        return readLocked(() -> fleetBitmap.count(statuses, type));
+    }
+    
     /**
      * Reset vehicles to default state.
      */
     public void resetVehicles() {
-        vehicles.clear();
-        nextVehicleId = 1;
-        initializeDefaultVehicles();
+        writeLocked(() -> {
+            if (columns != null) {
+                columns.clear();
+            }
+            vehicles.clear();
+            fleetBitmap.clear();
+            countsByStatusAndType = new int[VehicleStatus.values().length][VehicleType.values().length];
+            nameIndex.clear();
+            suggestionTrie.clear();
+            priceIndex.clear();
+            snapshotSlots.clear();
+            snapshot = new Snapshot<>(PersistentVector.empty(), 0, snapshot.getVersion() + 1);
+            nextVehicleNumber.set(1);
+            initializeDefaultVehicles();
+            return null;
+        });
+        notifyDataChanged(VehicleChangeEvent.reset());
     }
 }
-
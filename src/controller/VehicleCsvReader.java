@@ -0,0 +1,120 @@
+package controller;
+
+import model.Vehicle;
+import model.VehicleStatus;
+import model.VehicleType;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streams vehicles out of CSV text, one line at a time.
+ * Columns are name, type, price per day and an optional status; type and
+ * status use their display names ("Car", "Under Maintenance"). A header
+ * line starting with "name", a leading byte order mark and blank lines are
+ * skipped. Fields may be double-quoted, with "" for a literal quote.
+ */
+class VehicleCsvReader {
+    private final BufferedReader reader;
+    private int lineNumber;
+
+    VehicleCsvReader(Reader reader) {
+        this.reader = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+    }
+
+    /**
+     * Read the next vehicle. Its ID is left null for the controller to assign.
+     * @return Next vehicle, or null at the end of the input
+     * @throws IOException if the input cannot be read
+     * @throws IllegalArgumentException if a line is malformed
+     */
+    Vehicle next() throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (lineNumber == 1 && line.startsWith("\uFEFF")) {
+                // Byte order mark written by Excel and other Windows tools
+                line = line.substring(1);
+            }
+            if (line.isBlank()) {
+                continue;
+            }
+            List<String> fields = split(line);
+            if (lineNumber == 1 && fields.get(0).trim().equalsIgnoreCase("name")) {
+                continue;
+            }
+            return parse(fields);
+        }
+        return null;
+    }
+
+    private Vehicle parse(List<String> fields) {
+        if (fields.size() < 3 || fields.size() > 4) {
+            throw error("expected name, type, price and optional status");
+        }
+        String name = fields.get(0).trim();
+        if (name.isEmpty()) {
+            throw error("vehicle name is empty");
+        }
+        VehicleType type;
+        VehicleStatus status;
+        try {
+            type = VehicleType.fromDisplayName(fields.get(1).trim());
+            status = fields.size() == 4 && !fields.get(3).isBlank()
+                ? VehicleStatus.fromDisplayName(fields.get(3).trim())
+                : VehicleStatus.AVAILABLE;
+        } catch (IllegalArgumentException e) {
+            throw error(e.getMessage());
+        }
+        double price;
+        try {
+            price = Double.parseDouble(fields.get(2).trim());
+        } catch (NumberFormatException e) {
+            throw error("invalid price \"" + fields.get(2).trim() + "\"");
+        }
+        if (!Double.isFinite(price)) {
+            throw error("invalid price \"" + fields.get(2).trim() + "\"");
+        }
+        if (price <= 0) {
+            throw error("price must be greater than 0");
+        }
+        return new Vehicle(null, name, type, price, status);
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException("Line " + lineNumber + ": " + message);
+    }
+
+    private List<String> split(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw error("unterminated quote");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,249 @@
+package controller;
+
+import model.Vehicle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Trigram inverted index over vehicle names.
+ * Answers case-insensitive substring queries by intersecting the posting
+ * lists of the query's trigrams instead of scanning every vehicle.
+ * Postings are sorted arrays of vehicle numbers, so results come out in ID
+ * order and matching never formats a vehicle ID.
+ */
+class VehicleNameIndex {
+    private static final int GRAM_LENGTH = 3;
+
+    // Trigram -> numbers of the vehicles whose name contains it
+    private final Map<String, Posting> postings;
+
+    // Vehicle number -> indexed entry; lowercased names are kept to verify candidates
+    private final LongObjectMap<Entry> entries;
+
+    // Every indexed vehicle number, for queries shorter than a trigram
+    private final Posting all;
+
+    private static class Entry {
+        final Vehicle vehicle;
+        final String lowerName;
+
+        Entry(Vehicle vehicle, String lowerName) {
+            this.vehicle = vehicle;
+            this.lowerName = lowerName;
+        }
+    }
+
+    /**
+     * Growable sorted array of vehicle numbers. New vehicles get the highest
+     * number so far, so adding is usually an append.
+     */
+    private static class Posting {
+        private long[] numbers = new long[4];
+        private int size;
+
+        int size() {
+            return size;
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        long get(int index) {
+            return numbers[index];
+        }
+
+        boolean contains(long number) {
+            return Arrays.binarySearch(numbers, 0, size, number) >= 0;
+        }
+
+        void add(long number) {
+            int index = size == 0 || numbers[size - 1] < number
+                ? size : Arrays.binarySearch(numbers, 0, size, number);
+            if (index >= 0 && index < size) {
+                return; // Already present
+            }
+            index = index < 0 ? -index - 1 : index;
+            if (size == numbers.length) {
+                numbers = Arrays.copyOf(numbers, size * 2);
+            }
+            System.arraycopy(numbers, index, numbers, index + 1, size - index);
+            numbers[index] = number;
+            size++;
+        }
+
+        void remove(long number) {
+            int index = Arrays.binarySearch(numbers, 0, size, number);
+            if (index >= 0) {
+                System.arraycopy(numbers, index + 1, numbers, index, size - index - 1);
+                size--;
+            }
+        }
+
+        void clear() {
+            numbers = new long[4];
+            size = 0;
+        }
+    }
+
+    VehicleNameIndex() {
+        this.postings = new HashMap<>();
+        this.entries = new LongObjectMap<>();
+        this.all = new Posting();
+    }
+
+    /**
+     * Index a vehicle under its current name.
+     * @param vehicle Vehicle to index
+     */
+    void add(Vehicle vehicle) {
+        long number = vehicle.getVehicleNumber();
+        String lowerName = vehicle.getVehicleName().toLowerCase();
+        entries.put(number, new Entry(vehicle, lowerName));
+        all.add(number);
+        for (String gram : trigrams(lowerName)) {
+            postings.computeIfAbsent(gram, k -> new Posting()).add(number);
+        }
+    }
+
+    /**
+     * Remove a vehicle using the name it was indexed under.
+     * @param vehicle Vehicle to remove
+     */
+    void remove(Vehicle vehicle) {
+        long number = vehicle.getVehicleNumber();
+        Entry entry = entries.remove(number);
+        if (entry == null) {
+            return;
+        }
+        all.remove(number);
+        for (String gram : trigrams(entry.lowerName)) {
+            Posting posting = postings.get(gram);
+            if (posting != null) {
+                posting.remove(number);
+                if (posting.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    void clear() {
+        postings.clear();
+        entries.clear();
+        all.clear();
+    }
+
+    /**
+     * Estimate how many candidates a query has to examine.
+     * @param query Search term
+     * @return Size of the smallest posting list for the query
+     */
+    int estimate(String query) {
+        String lowerQuery = query.toLowerCase();
+        if (lowerQuery.length() < GRAM_LENGTH) {
+            return entries.size();
+        }
+        int smallest = Integer.MAX_VALUE;
+        for (String gram : trigrams(lowerQuery)) {
+            Posting posting = postings.get(gram);
+            if (posting == null) {
+                return 0;
+            }
+            smallest = Math.min(smallest, posting.size());
+        }
+        return smallest;
+    }
+
+    /**
+     * Check whether an indexed vehicle's name contains the query.
+     * @param vehicle Vehicle to check
+     * @param lowerQuery Lowercased search term
+     * @return true if the indexed name contains the query
+     */
+    boolean matches(Vehicle vehicle, String lowerQuery) {
+        Entry entry = entries.get(vehicle.getVehicleNumber());
+        return entry != null && entry.lowerName.contains(lowerQuery);
+    }
+
+    /**
+     * Find vehicles whose name contains the query (case-insensitive).
+     * Queries shorter than a trigram fall back to the cached lowercased names.
+     * @param query Search term
+     * @param filter Extra condition checked before the name is verified, or null
+     * @return Matching vehicles in ID order
+     */
+    List<Vehicle> search(String query, Predicate<Vehicle> filter) {
+        return search(query, filter, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Find vehicles whose name contains the query, stopping at a limit.
+     * @param query Search term
+     * @param filter Extra condition checked before the name is verified, or null
+     * @param limit Maximum number of vehicles to return
+     * @return Matching vehicles in ID order
+     */
+    List<Vehicle> search(String query, Predicate<Vehicle> filter, int limit) {
+        String lowerQuery = query.toLowerCase();
+        List<Vehicle> results = new ArrayList<>();
+
+        if (lowerQuery.length() < GRAM_LENGTH) {
+            for (int i = 0; i < all.size() && results.size() < limit; i++) {
+                Entry entry = entries.get(all.get(i));
+                if (entry.lowerName.contains(lowerQuery)
+                        && (filter == null || filter.test(entry.vehicle))) {
+                    results.add(entry.vehicle);
+                }
+            }
+            return results;
+        }
+
+        // Intersect posting lists, driving the scan from the smallest one
+        List<Posting> lists = new ArrayList<>();
+        for (String gram : trigrams(lowerQuery)) {
+            Posting posting = postings.get(gram);
+            if (posting == null) {
+                return results;
+            }
+            lists.add(posting);
+        }
+        lists.sort((a, b) -> Integer.compare(a.size(), b.size()));
+
+        Posting smallest = lists.get(0);
+        for (int i = 0; i < smallest.size() && results.size() < limit; i++) {
+            long number = smallest.get(i);
+            if (!inAll(lists, number)) {
+                continue;
+            }
+            Entry entry = entries.get(number);
+            if ((filter == null || filter.test(entry.vehicle)) && entry.lowerName.contains(lowerQuery)) {
+                results.add(entry.vehicle);
+            }
+        }
+        return results;
+    }
+
+    private static boolean inAll(List<Posting> lists, long number) {
+        for (int i = 1; i < lists.size(); i++) {
+            if (!lists.get(i).contains(number)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Set<String> trigrams(String text) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+}
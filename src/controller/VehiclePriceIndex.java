@@ -0,0 +1,201 @@
+package controller;
+
+import model.Vehicle;
+import model.VehicleStatus;
+import model.VehicleType;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+
+/**
+ * Sorted index of vehicles by price per day.
+ * Keeps one NavigableMap for the whole fleet, one per status, one per type
+ * and one per (status, type) pair, all ordered by (price, vehicle ID) so
+ * ranges and keyset pages resume exactly. A query filtered by status and/or
+ * type walks only its own map: O(log n + k) for k results.
+ */
+class VehiclePriceIndex {
+    private final NavigableMap<PriceKey, Vehicle> byPrice;
+    private final Map<VehicleStatus, NavigableMap<PriceKey, Vehicle>> byStatusAndPrice;
+    private final Map<VehicleType, NavigableMap<PriceKey, Vehicle>> byTypeAndPrice;
+    private final Map<VehicleStatus, Map<VehicleType, NavigableMap<PriceKey, Vehicle>>> byStatusTypeAndPrice;
+
+    // Vehicle number -> key, status and type it was indexed under
+    private final LongObjectMap<PriceKey> keys;
+    private final LongObjectMap<VehicleStatus> statuses;
+    private final LongObjectMap<VehicleType> types;
+
+    /**
+     * Sort key of the index: price first, vehicle number to break ties.
+     */
+    private static class PriceKey implements Comparable<PriceKey> {
+        final double price;
+        final long vehicleNumber;
+
+        PriceKey(double price, long vehicleNumber) {
+            this.price = price;
+            this.vehicleNumber = vehicleNumber;
+        }
+
+        @Override
+        public int compareTo(PriceKey other) {
+            int result = Double.compare(price, other.price);
+            if (result == 0) {
+                result = Long.compare(vehicleNumber, other.vehicleNumber);
+            }
+            return result;
+        }
+    }
+
+    VehiclePriceIndex() {
+        this.byPrice = new TreeMap<>();
+        this.byStatusAndPrice = new EnumMap<>(VehicleStatus.class);
+        this.byTypeAndPrice = new EnumMap<>(VehicleType.class);
+        this.byStatusTypeAndPrice = new EnumMap<>(VehicleStatus.class);
+        this.keys = new LongObjectMap<>();
+        this.statuses = new LongObjectMap<>();
+        this.types = new LongObjectMap<>();
+    }
+
+    void add(Vehicle vehicle, VehicleStatus status) {
+        PriceKey key = new PriceKey(vehicle.getPricePerDay(), vehicle.getVehicleNumber());
+        keys.put(vehicle.getVehicleNumber(), key);
+        statuses.put(vehicle.getVehicleNumber(), status);
+        types.put(vehicle.getVehicleNumber(), vehicle.getVehicleType());
+        byPrice.put(key, vehicle);
+        byStatusAndPrice.computeIfAbsent(status, k -> new TreeMap<>()).put(key, vehicle);
+        byTypeAndPrice.computeIfAbsent(vehicle.getVehicleType(), k -> new TreeMap<>()).put(key, vehicle);
+        byStatusTypeAndPrice.computeIfAbsent(status, k -> new EnumMap<>(VehicleType.class))
+            .computeIfAbsent(vehicle.getVehicleType(), k -> new TreeMap<>()).put(key, vehicle);
+    }
+
+    void remove(Vehicle vehicle) {
+        PriceKey key = keys.remove(vehicle.getVehicleNumber());
+        if (key == null) {
+            return;
+        }
+        VehicleStatus status = statuses.remove(vehicle.getVehicleNumber());
+        VehicleType type = types.remove(vehicle.getVehicleNumber());
+        byPrice.remove(key);
+        removeFrom(byStatusAndPrice, status, key);
+        removeFrom(byTypeAndPrice, type, key);
+        Map<VehicleType, NavigableMap<PriceKey, Vehicle>> statusTypes = byStatusTypeAndPrice.get(status);
+        if (statusTypes != null) {
+            removeFrom(statusTypes, type, key);
+            if (statusTypes.isEmpty()) {
+                byStatusTypeAndPrice.remove(status);
+            }
+        }
+    }
+
+    private static <K> void removeFrom(Map<K, NavigableMap<PriceKey, Vehicle>> maps, K group, PriceKey key) {
+        NavigableMap<PriceKey, Vehicle> map = maps.get(group);
+        if (map != null) {
+            map.remove(key);
+            if (map.isEmpty()) {
+                maps.remove(group);
+            }
+        }
+    }
+
+    /**
+     * @return Map holding exactly the vehicles with the status and type, or null if there are none
+     */
+    private NavigableMap<PriceKey, Vehicle> source(VehicleStatus status, VehicleType type) {
+        if (status == null) {
+            return type == null ? byPrice : byTypeAndPrice.get(type);
+        }
+        if (type == null) {
+            return byStatusAndPrice.get(status);
+        }
+        Map<VehicleType, NavigableMap<PriceKey, Vehicle>> statusTypes = byStatusTypeAndPrice.get(status);
+        return statusTypes == null ? null : statusTypes.get(type);
+    }
+
+    void clear() {
+        byPrice.clear();
+        byStatusAndPrice.clear();
+        byTypeAndPrice.clear();
+        byStatusTypeAndPrice.clear();
+        keys.clear();
+        statuses.clear();
+        types.clear();
+    }
+
+    /**
+     * Walk vehicles in ascending price order within a range.
+     * @param minPrice Lowest price, inclusive
+     * @param maxPrice Highest price, inclusive
+     * @param type Vehicle type to include, or null for any type
+     * @param status Vehicle status to include, or null for any status
+     * @param afterPrice Price of the last vehicle on the previous page
+     * @param afterVehicleNumber Number of the last vehicle on the previous page, or 0 for the first page
+     * @param limit Maximum number of vehicles to return
+     * @return Matching vehicles, cheapest first
+     */
+    List<Vehicle> range(double minPrice, double maxPrice, VehicleType type, VehicleStatus status,
+                        double afterPrice, long afterVehicleNumber, int limit) {
+        NavigableMap<PriceKey, Vehicle> source = source(status, type);
+        if (source == null || minPrice > maxPrice) {
+            return new ArrayList<>();
+        }
+
+        // Lowest possible key at minPrice, or just past the previous page
+        NavigableMap<PriceKey, Vehicle> window;
+        if (afterVehicleNumber != 0 && afterPrice >= minPrice) {
+            window = source.tailMap(new PriceKey(afterPrice, afterVehicleNumber), false);
+        } else {
+            window = source.tailMap(new PriceKey(minPrice, Long.MIN_VALUE), true);
+        }
+        return collect(window, minPrice, maxPrice, null, limit);
+    }
+
+    /**
+     * Walk vehicles within a price range in either direction, stopping at the limit.
+     * @param minPrice Lowest price, inclusive
+     * @param maxPrice Highest price, inclusive
+     * @param status Vehicle status to include, or null for any status
+     * @param type Vehicle type to include, or null for any type
+     * @param descending true to walk from the most expensive vehicle down
+     * @param filter Extra condition a vehicle must meet, or null
+     * @param limit Maximum number of vehicles to return
+     * @return Matching vehicles in price order
+     */
+    List<Vehicle> walk(double minPrice, double maxPrice, VehicleStatus status, VehicleType type,
+                       boolean descending, Predicate<Vehicle> filter, int limit) {
+        NavigableMap<PriceKey, Vehicle> source = source(status, type);
+        if (source == null || minPrice > maxPrice) {
+            return new ArrayList<>();
+        }
+        NavigableMap<PriceKey, Vehicle> window = descending
+            ? source.headMap(new PriceKey(maxPrice, Long.MAX_VALUE), true).descendingMap()
+            : source.tailMap(new PriceKey(minPrice, Long.MIN_VALUE), true);
+        return collect(window, minPrice, maxPrice, filter, limit);
+    }
+
+    private static List<Vehicle> collect(NavigableMap<PriceKey, Vehicle> window, double minPrice, double maxPrice,
+                                         Predicate<Vehicle> filter, int limit) {
+        List<Vehicle> results = new ArrayList<>();
+        if (limit <= 0) {
+            return results;
+        }
+        for (Map.Entry<PriceKey, Vehicle> entry : window.entrySet()) {
+            double price = entry.getKey().price;
+            if (price > maxPrice || price < minPrice) {
+                break;
+            }
+            Vehicle vehicle = entry.getValue();
+            if (filter == null || filter.test(vehicle)) {
+                results.add(vehicle);
+                if (results.size() >= limit) {
+                    break;
+                }
+            }
+        }
+        return results;
+    }
+}
@@ -0,0 +1,106 @@
+package controller;
+
+import model.VehicleStatus;
+import model.VehicleType;
+import java.util.List;
+
+/**
+ * Describes a fleet query for VehicleController.query().
+ * Combines name substring, type, status, price range, sort order and limit;
+ * unset criteria match every vehicle.
+ */
+public class VehicleQuery {
+
+    /**
+     * Order of the query results
+     */
+    public enum SortOrder {
+        NONE, NAME, PRICE_ASC, PRICE_DESC
+    }
+
+    private String nameContains;
+    private VehicleType type;
+    private List<VehicleStatus> statuses;
+    private double minPrice = 0;
+    private double maxPrice = Double.MAX_VALUE;
+    private SortOrder sortOrder = SortOrder.NONE;
+    private int limit = Integer.MAX_VALUE;
+
+    /**
+     * Only include vehicles whose name contains the text (case-insensitive).
+     */
+    public VehicleQuery nameContains(String nameContains) {
+        this.nameContains = nameContains == null || nameContains.isEmpty() ? null : nameContains;
+        return this;
+    }
+
+    /**
+     * Only include vehicles of the given type.
+     */
+    public VehicleQuery type(VehicleType type) {
+        this.type = type;
+        return this;
+    }
+
+    /**
+     * Only include vehicles with one of the given statuses.
+     */
+    public VehicleQuery statuses(List<VehicleStatus> statuses) {
+        this.statuses = statuses;
+        return this;
+    }
+
+    /**
+     * Only include vehicles priced within the range per day, inclusive.
+     */
+    public VehicleQuery priceBetween(double minPrice, double maxPrice) {
+        this.minPrice = minPrice;
+        this.maxPrice = maxPrice;
+        return this;
+    }
+
+    public VehicleQuery sortBy(SortOrder sortOrder) {
+        this.sortOrder = sortOrder == null ? SortOrder.NONE : sortOrder;
+        return this;
+    }
+
+    public VehicleQuery limit(int limit) {
+        this.limit = limit;
+        return this;
+    }
+
+    public String getNameContains() {
+        return nameContains;
+    }
+
+    public VehicleType getType() {
+        return type;
+    }
+
+    public List<VehicleStatus> getStatuses() {
+        return statuses;
+    }
+
+    public double getMinPrice() {
+        return minPrice;
+    }
+
+    public double getMaxPrice() {
+        return maxPrice;
+    }
+
+    public SortOrder getSortOrder() {
+        return sortOrder;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Check whether a price range narrower than "any price" was set.
+     */
+    public boolean hasPriceRange() {
+        return minPrice > 0 || maxPrice < Double.MAX_VALUE;
+    }
+}
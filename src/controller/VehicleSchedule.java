@@ -0,0 +1,87 @@
+package controller;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Booked periods of one vehicle, for conflict checks.
+ * Periods are half-open [start, end) and never overlap, so keyed by start
+ * they are also sorted by end. The only period that can overlap [from, to)
+ * is then the last one starting before to, and a conflict check is a single
+ * O(log n) lookup instead of a scan of every rental and reservation.
+ * Not thread-safe; RentalController guards it with its monitor.
+ */
+class VehicleSchedule {
+
+    /**
+     * One booked period and the rental or reservation holding it
+     */
+    static class Booking {
+        final LocalDateTime start;
+        final LocalDateTime end;
+        final Object owner;
+
+        Booking(LocalDateTime start, LocalDateTime end, Object owner) {
+            this.start = start;
+            this.end = end;
+            this.owner = owner;
+        }
+    }
+
+    private final TreeMap<LocalDateTime, Booking> bookings = new TreeMap<>();
+
+    boolean isEmpty() {
+        return bookings.isEmpty();
+    }
+
+    /**
+     * @return The booking overlapping [from, to), or null if the period is free
+     */
+    Booking findConflict(LocalDateTime from, LocalDateTime to) {
+        Map.Entry<LocalDateTime, Booking> last = bookings.lowerEntry(to);
+        if (last != null && last.getValue().end.isAfter(from)) {
+            return last.getValue();
+        }
+        return null;
+    }
+
+    /**
+     * Book [start, end) unless it overlaps an existing booking.
+     * @return true if booked
+     */
+    boolean add(LocalDateTime start, LocalDateTime end, Object owner) {
+        if (findConflict(start, end) != null) {
+            return false;
+        }
+        bookings.put(start, new Booking(start, end, owner));
+        return true;
+    }
+
+    /**
+     * Free the period booked by an owner.
+     * @param start Start of the booked period
+     * @param owner Rental or reservation that booked it
+     */
+    void remove(LocalDateTime start, Object owner) {
+        Booking booking = bookings.get(start);
+        if (booking != null && booking.owner == owner) {
+            bookings.remove(start);
+        }
+    }
+
+    /**
+     * @return Bookings ending after a point in time, in time order
+     */
+    List<Booking> after(LocalDateTime time) {
+        List<Booking> upcoming = new ArrayList<>();
+        Map.Entry<LocalDateTime, Booking> first = bookings.lowerEntry(time);
+        if (first != null && first.getValue().end.isAfter(time)) {
+            upcoming.add(first.getValue());
+        }
+        upcoming.addAll(bookings.tailMap(time, true).values());
+        return upcoming;
+    }
+}
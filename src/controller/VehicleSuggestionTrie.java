@@ -0,0 +1,287 @@
+package controller;
+
+import model.Vehicle;
+import model.VehicleStatus;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Compressed prefix trie over vehicle names and types for typeahead.
+ * Every node caches the best suggestions of its subtree, so a lookup
+ * only walks the prefix and never touches the rest of the fleet.
+ * Suggestions rank available vehicles first, then by lowest price.
+ */
+class VehicleSuggestionTrie {
+    /** Most suggestions cached per node */
+    static final int MAX_SUGGESTIONS = 10;
+
+    private final Node root;
+
+    // Vehicle number -> ranked entry and the keys it was inserted under
+    private final LongObjectMap<Ranked> entries;
+
+    private static class Node {
+        String label;
+        final Map<Character, Node> children = new HashMap<>();
+        final TreeSet<Ranked> terminals = new TreeSet<>();
+        List<Ranked> top = new ArrayList<>();
+
+        Node(String label) {
+            this.label = label;
+        }
+    }
+
+    /**
+     * Vehicle with its ranking captured at insert time, so later changes
+     * to the vehicle cannot corrupt the sorted sets it lives in.
+     */
+    private static class Ranked implements Comparable<Ranked> {
+        final Vehicle vehicle;
+        final int statusRank;
+        final double price;
+        final long vehicleNumber;
+        final Set<String> keys;
+
+        Ranked(Vehicle vehicle, VehicleStatus status, Set<String> keys) {
+            this.vehicle = vehicle;
+            this.statusRank = statusRank(status);
+            this.price = vehicle.getPricePerDay();
+            this.vehicleNumber = vehicle.getVehicleNumber();
+            this.keys = keys;
+        }
+
+        @Override
+        public int compareTo(Ranked other) {
+            int result = Integer.compare(statusRank, other.statusRank);
+            if (result == 0) {
+                result = Double.compare(price, other.price);
+            }
+            if (result == 0) {
+                result = Long.compare(vehicleNumber, other.vehicleNumber);
+            }
+            return result;
+        }
+    }
+
+    VehicleSuggestionTrie() {
+        this.root = new Node("");
+        this.entries = new LongObjectMap<>();
+    }
+
+    /**
+     * Insert a vehicle under its name, the start of each later word in
+     * its name, and its type.
+     * @param vehicle Vehicle to insert
+     * @param status Status to rank the vehicle by
+     */
+    void add(Vehicle vehicle, VehicleStatus status) {
+        Ranked ranked = new Ranked(vehicle, status, keysFor(vehicle));
+        entries.put(ranked.vehicleNumber, ranked);
+        for (String key : ranked.keys) {
+            insert(key, ranked);
+        }
+    }
+
+    /**
+     * Remove a vehicle from every key it was inserted under.
+     * @param vehicle Vehicle to remove
+     */
+    void remove(Vehicle vehicle) {
+        Ranked ranked = entries.remove(vehicle.getVehicleNumber());
+        if (ranked == null) {
+            return;
+        }
+
+        // Drop the terminals first, then rebuild cached tops deepest node first
+        Map<Node, Integer> affected = new LinkedHashMap<>();
+        for (String key : ranked.keys) {
+            List<Node> path = findPath(key);
+            if (path == null) {
+                continue;
+            }
+            path.get(path.size() - 1).terminals.remove(ranked);
+            for (int depth = 0; depth < path.size(); depth++) {
+                affected.merge(path.get(depth), depth, Math::max);
+            }
+        }
+
+        List<Map.Entry<Node, Integer>> ordered = new ArrayList<>(affected.entrySet());
+        ordered.sort((a, b) -> Integer.compare(b.getValue(), a.getValue()));
+        for (Map.Entry<Node, Integer> entry : ordered) {
+            Node node = entry.getKey();
+            node.children.values().removeIf(child -> child.terminals.isEmpty() && child.children.isEmpty());
+            if (Collections.binarySearch(node.top, ranked) >= 0) {
+                recomputeTop(node);
+            }
+        }
+    }
+
+    void clear() {
+        root.children.clear();
+        root.terminals.clear();
+        root.top = new ArrayList<>();
+        entries.clear();
+    }
+
+    /**
+     * Get the best-ranked vehicles matching a prefix.
+     * @param prefix Typed prefix (case-insensitive)
+     * @param limit Maximum suggestions, capped at MAX_SUGGESTIONS
+     * @return Matching vehicles, best first
+     */
+    List<Vehicle> suggest(String prefix, int limit) {
+        String key = prefix.toLowerCase();
+        Node node = root;
+        int i = 0;
+        while (i < key.length()) {
+            Node child = node.children.get(key.charAt(i));
+            if (child == null) {
+                return new ArrayList<>();
+            }
+            int length = Math.min(child.label.length(), key.length() - i);
+            if (!child.label.regionMatches(0, key, i, length)) {
+                return new ArrayList<>();
+            }
+            i += length;
+            node = child;
+        }
+
+        List<Vehicle> suggestions = new ArrayList<>();
+        for (int j = 0; j < node.top.size() && j < limit; j++) {
+            suggestions.add(node.top.get(j).vehicle);
+        }
+        return suggestions;
+    }
+
+    private void insert(String key, Ranked ranked) {
+        List<Node> path = new ArrayList<>();
+        path.add(root);
+        Node node = root;
+        int i = 0;
+        while (i < key.length()) {
+            char c = key.charAt(i);
+            Node child = node.children.get(c);
+            if (child == null) {
+                child = new Node(key.substring(i));
+                node.children.put(c, child);
+                node = child;
+                path.add(node);
+                break;
+            }
+            int common = commonPrefixLength(child.label, key, i);
+            if (common < child.label.length()) {
+                // Split the edge so the key ends or branches at a node
+                Node middle = new Node(child.label.substring(0, common));
+                child.label = child.label.substring(common);
+                middle.children.put(child.label.charAt(0), child);
+                middle.top = new ArrayList<>(child.top);
+                node.children.put(c, middle);
+                child = middle;
+            }
+            node = child;
+            path.add(node);
+            i += common;
+        }
+
+        node.terminals.add(ranked);
+        for (Node onPath : path) {
+            offer(onPath, ranked);
+        }
+    }
+
+    private List<Node> findPath(String key) {
+        List<Node> path = new ArrayList<>();
+        path.add(root);
+        Node node = root;
+        int i = 0;
+        while (i < key.length()) {
+            Node child = node.children.get(key.charAt(i));
+            if (child == null || !key.startsWith(child.label, i)) {
+                return null;
+            }
+            i += child.label.length();
+            node = child;
+            path.add(node);
+        }
+        return path;
+    }
+
+    private static void offer(Node node, Ranked ranked) {
+        int position = Collections.binarySearch(node.top, ranked);
+        if (position >= 0) {
+            return;
+        }
+        int insertAt = -position - 1;
+        if (insertAt >= MAX_SUGGESTIONS) {
+            return;
+        }
+        node.top.add(insertAt, ranked);
+        if (node.top.size() > MAX_SUGGESTIONS) {
+            node.top.remove(node.top.size() - 1);
+        }
+    }
+
+    private static void recomputeTop(Node node) {
+        TreeSet<Ranked> candidates = new TreeSet<>();
+        for (Ranked ranked : node.terminals) {
+            if (candidates.size() >= MAX_SUGGESTIONS) {
+                break;
+            }
+            candidates.add(ranked);
+        }
+        for (Node child : node.children.values()) {
+            candidates.addAll(child.top);
+        }
+        List<Ranked> top = new ArrayList<>(MAX_SUGGESTIONS);
+        for (Ranked ranked : candidates) {
+            if (top.size() >= MAX_SUGGESTIONS) {
+                break;
+            }
+            top.add(ranked);
+        }
+        node.top = top;
+    }
+
+    private static int commonPrefixLength(String label, String key, int offset) {
+        int length = 0;
+        while (length < label.length() && offset + length < key.length()
+                && label.charAt(length) == key.charAt(offset + length)) {
+            length++;
+        }
+        return length;
+    }
+
+    private static Set<String> keysFor(Vehicle vehicle) {
+        Set<String> keys = new LinkedHashSet<>();
+        String name = vehicle.getVehicleName().toLowerCase().trim();
+        if (!name.isEmpty()) {
+            keys.add(name);
+        }
+        for (int i = 1; i < name.length(); i++) {
+            if (name.charAt(i - 1) == ' ' && name.charAt(i) != ' ') {
+                keys.add(name.substring(i));
+            }
+        }
+        if (vehicle.getVehicleType() != null) {
+            keys.add(vehicle.getVehicleType().getDisplayName().toLowerCase());
+        }
+        return keys;
+    }
+
+    private static int statusRank(VehicleStatus status) {
+        if (status == VehicleStatus.AVAILABLE) {
+            return 0;
+        }
+        if (status == VehicleStatus.UNDER_MAINTENANCE) {
+            return 1;
+        }
+        return 2;
+    }
+}
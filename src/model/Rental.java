@@ -7,25 +7,33 @@ import java.time.temporal.ChronoUnit;
  * Represents a rental transaction in the Vehicle Rental System.
  * Contains information about customer, vehicle, rental duration, and cost.
  * Rental is now based on date/time instead of days.
+ * Rental and vehicle IDs are held as numbers and formatted when asked for.
  */
 public class Rental {
-    private String rentalId;
+    private long rentalNumber;
     private String customerUsername;
-    private String vehicleId;
+    private long vehicleNumber;
     private String vehicleName;
     private double totalCost;
     private LocalDateTime rentalDate;       // Start date/time of rental
     private LocalDateTime expectedReturnDate; // Expected return date/time
-    private LocalDateTime returnDate;
-    private LocalDateTime giveBackDate; // Expected return date for lost items
-    private String status; // "Active", "Returned", "Lost"
+    private volatile LocalDateTime returnDate;
+    private volatile LocalDateTime giveBackDate; // Expected return date for lost items
+    private volatile String status; // "Active", "Returned", "Lost"
     
     public Rental(String rentalId, String customerUsername, String vehicleId, 
                   String vehicleName, double totalCost, LocalDateTime rentalDate, 
                   LocalDateTime expectedReturnDate) {
-        this.rentalId = rentalId;
+        this(parseId(rentalId), customerUsername, Vehicle.parseId(vehicleId), vehicleName, totalCost,
+             rentalDate, expectedReturnDate);
+    }
+    
+    public Rental(long rentalNumber, String customerUsername, long vehicleNumber,
+                  String vehicleName, double totalCost, LocalDateTime rentalDate,
+                  LocalDateTime expectedReturnDate) {
+        this.rentalNumber = rentalNumber;
         this.customerUsername = customerUsername;
-        this.vehicleId = vehicleId;
+        this.vehicleNumber = vehicleNumber;
         this.vehicleName = vehicleName;
         this.totalCost = totalCost;
         this.rentalDate = rentalDate;
@@ -33,13 +41,36 @@ public class Rental {
         this.status = "Active";
     }
     
+    /**
+     * Format a rental number as its display ID, e.g. 1001 -> "R1001".
+     * @param rentalNumber Rental number, at least 1
+     * @return Display ID
+     */
+    public static String formatId(long rentalNumber) {
+        String digits = Long.toString(rentalNumber);
+        return digits.length() >= 4 ? "R" + digits : "R" + "000".substring(digits.length() - 1) + digits;
+    }
+    
+    /**
+     * Parse a display ID such as "R1001" without allocating.
+     * @param rentalId Display ID
+     * @return Rental number, or 0 if the ID is null or malformed
+     */
+    public static long parseId(String rentalId) {
+        return Vehicle.parseNumber(rentalId, 'R');
+    }
+    
     // Getters and Setters
+    public long getRentalNumber() {
+        return rentalNumber;
+    }
+    
     public String getRentalId() {
-        return rentalId;
+        return formatId(rentalNumber);
     }
     
     public void setRentalId(String rentalId) {
-        this.rentalId = rentalId;
+        this.rentalNumber = parseId(rentalId);
     }
     
     public String getCustomerUsername() {
@@ -50,12 +81,16 @@ public class Rental {
         this.customerUsername = customerUsername;
     }
     
+    public long getVehicleNumber() {
+        return vehicleNumber;
+    }
+    
     public String getVehicleId() {
-        return vehicleId;
+        return Vehicle.formatId(vehicleNumber);
     }
     
     public void setVehicleId(String vehicleId) {
-        this.vehicleId = vehicleId;
+        this.vehicleNumber = Vehicle.parseId(vehicleId);
     }
     
     public String getVehicleName() {
@@ -140,19 +175,29 @@ public class Rental {
     
     /**
      * Mark the rental as returned and set return date.
+     * @return true if the rental was active, false if it was already closed
      */
-    public void markAsReturned() {
-        this.status = "Returned";
+    public synchronized boolean markAsReturned() {
+        if (!"Active".equals(status)) {
+            return false;
+        }
         this.returnDate = LocalDateTime.now();
+        this.status = "Returned";
+        return true;
     }
 
     /**
      * Mark the rental as lost and set expected give-back date.
      * @param giveBackDate Expected date when the lost item will be returned
+     * @return true if the rental was active, false if it was already closed
      */
-    public void markAsLost(LocalDateTime giveBackDate) {
-        this.status = "Lost";
+    public synchronized boolean markAsLost(LocalDateTime giveBackDate) {
+        if (!"Active".equals(status)) {
+            return false;
+        }
         this.giveBackDate = giveBackDate;
+        this.status = "Lost";
+        return true;
     }
 }
 
@@ -0,0 +1,120 @@
+package model;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Represents an advance booking of a vehicle for a future period.
+ * A reservation holds the vehicle's time slot without changing its status;
+ * it becomes a rental when it is started, or frees the slot when cancelled.
+ */
+public class Reservation {
+    private final long reservationNumber;
+    private final String customerUsername;
+    private final long vehicleNumber;
+    private final String vehicleName;
+    private final LocalDateTime startDate;
+    private final LocalDateTime endDate;
+    private volatile String status; // "Booked", "Started", "Cancelled"
+
+    public Reservation(long reservationNumber, String customerUsername, long vehicleNumber,
+                       String vehicleName, LocalDateTime startDate, LocalDateTime endDate) {
+        this.reservationNumber = reservationNumber;
+        this.customerUsername = customerUsername;
+        this.vehicleNumber = vehicleNumber;
+        this.vehicleName = vehicleName;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.status = "Booked";
+    }
+
+    /**
+     * Format a reservation number as its display ID, e.g. 12 -> "B012".
+     * @param reservationNumber Reservation number, at least 1
+     * @return Display ID
+     */
+    public static String formatId(long reservationNumber) {
+        String digits = Long.toString(reservationNumber);
+        return digits.length() >= 3 ? "B" + digits : "B" + "00".substring(digits.length() - 1) + digits;
+    }
+
+    /**
+     * Parse a display ID such as "B012" without allocating.
+     * @param reservationId Display ID
+     * @return Reservation number, or 0 if the ID is null or malformed
+     */
+    public static long parseId(String reservationId) {
+        return Vehicle.parseNumber(reservationId, 'B');
+    }
+
+    // Getters
+    public long getReservationNumber() {
+        return reservationNumber;
+    }
+
+    public String getReservationId() {
+        return formatId(reservationNumber);
+    }
+
+    public String getCustomerUsername() {
+        return customerUsername;
+    }
+
+    public long getVehicleNumber() {
+        return vehicleNumber;
+    }
+
+    public String getVehicleId() {
+        return Vehicle.formatId(vehicleNumber);
+    }
+
+    public String getVehicleName() {
+        return vehicleName;
+    }
+
+    public LocalDateTime getStartDate() {
+        return startDate;
+    }
+
+    public LocalDateTime getEndDate() {
+        return endDate;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    /**
+     * Calculate the reserved period as a formatted string.
+     * @return Formatted duration string (e.g., "2h 30m")
+     */
+    public String getFormattedDuration() {
+        long hours = ChronoUnit.HOURS.between(startDate, endDate);
+        long minutes = ChronoUnit.MINUTES.between(startDate, endDate) % 60;
+        return String.format("%dh %dm", hours, minutes);
+    }
+
+    /**
+     * Mark the reservation as turned into a rental.
+     * @return true if the reservation was booked, false if it was already started or cancelled
+     */
+    public synchronized boolean markAsStarted() {
+        if (!"Booked".equals(status)) {
+            return false;
+        }
+        this.status = "Started";
+        return true;
+    }
+
+    /**
+     * Mark the reservation as cancelled.
+     * @return true if the reservation was booked, false if it was already started or cancelled
+     */
+    public synchronized boolean markAsCancelled() {
+        if (!"Booked".equals(status)) {
+            return false;
+        }
+        this.status = "Cancelled";
+        return true;
+    }
+}
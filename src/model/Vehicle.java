@@ -1,32 +1,96 @@
 package model;
 
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
 /**
  * Represents a vehicle in the Rental System.
  * Each vehicle has unique ID, name, type, price per day, and status.
+ * Fields are volatile because vehicles are read outside the controller's lock.
+ * The ID is held as a number; the "V001" form is only built when asked for.
  */
 public class Vehicle {
-    private String vehicleId;
-    private String vehicleName;
-    private String vehicleType; // "Car", "Motorbike", "Truck"
-    private double pricePerDay;
-    private String status; // "Available", "Rented"
-    
-    public Vehicle(String vehicleId, String vehicleName, String vehicleType, 
-                   double pricePerDay, String status) {
-        this.vehicleId = vehicleId;
+    private volatile long vehicleNumber;
+    private volatile String vehicleName;
+    private volatile VehicleType vehicleType;
+    private volatile double pricePerDay;
+    private volatile VehicleStatus status;
+    
+    private static final AtomicReferenceFieldUpdater<Vehicle, VehicleStatus> STATUS =
+        AtomicReferenceFieldUpdater.newUpdater(Vehicle.class, VehicleStatus.class, "status");
+    
+    public Vehicle(String vehicleId, String vehicleName, VehicleType vehicleType, 
+                   double pricePerDay, VehicleStatus status) {
+        this.vehicleNumber = parseId(vehicleId);
         this.vehicleName = vehicleName;
         this.vehicleType = vehicleType;
         this.pricePerDay = pricePerDay;
         this.status = status;
     }
     
+    /**
+     * Format a vehicle number as its display ID, e.g. 7 -> "V007".
+     * @param vehicleNumber Vehicle number, at least 1
+     * @return Display ID
+     */
+    public static String formatId(long vehicleNumber) {
+        String digits = Long.toString(vehicleNumber);
+        switch (digits.length()) {
+            case 1:
+                return "V00" + digits;
+            case 2:
+                return "V0" + digits;
+            default:
+                return "V" + digits;
+        }
+    }
+    
+    /**
+     * Parse a display ID such as "V007" without allocating.
+     * @param vehicleId Display ID
+     * @return Vehicle number, or 0 if the ID is null or malformed
+     */
+    public static long parseId(String vehicleId) {
+        return parseNumber(vehicleId, 'V');
+    }
+    
+    /**
+     * Parse a prefixed decimal ID such as "V007" or "R1001".
+     * @return Number after the prefix, or 0 if malformed
+     */
+    static long parseNumber(String id, char prefix) {
+        if (id == null || id.length() < 2 || id.length() > 19 || id.charAt(0) != prefix) {
+            return 0;
+        }
+        long number = 0;
+        for (int i = 1; i < id.length(); i++) {
+            char c = id.charAt(i);
+            if (c < '0' || c > '9') {
+                return 0;
+            }
+            number = number * 10 + (c - '0');
+        }
+        return number;
+    }
+    
     // Getters and Setters
+    public long getVehicleNumber() {
+        return vehicleNumber;
+    }
+    
+    public void setVehicleNumber(long vehicleNumber) {
+        this.vehicleNumber = vehicleNumber;
+    }
+    
+    /**
+     * @return Display ID such as "V007", or null if no number is assigned yet
+     */
     public String getVehicleId() {
-        return vehicleId;
+        long number = vehicleNumber;
+        return number == 0 ? null : formatId(number);
     }
     
     public void setVehicleId(String vehicleId) {
-        this.vehicleId = vehicleId;
+        this.vehicleNumber = parseId(vehicleId);
     }
     
     public String getVehicleName() {
@@ -37,11 +101,11 @@ public class Vehicle {
         this.vehicleName = vehicleName;
     }
     
-    public String getVehicleType() {
+    public VehicleType getVehicleType() {
         return vehicleType;
     }
     
-    public void setVehicleType(String vehicleType) {
+    public void setVehicleType(VehicleType vehicleType) {
         this.vehicleType = vehicleType;
     }
     
@@ -53,17 +117,27 @@ public class Vehicle {
         this.pricePerDay = pricePerDay;
     }
     
-    public String getStatus() {
+    public VehicleStatus getStatus() {
         return status;
     }
     
-    public void setStatus(String status) {
+    public void setStatus(VehicleStatus status) {
         this.status = status;
     }
     
+    /**
+     * Set the status only if it currently equals the expected one.
+     * @param expected Status the vehicle must have
+     * @param next New status
+     * @return true if the status was changed by this call
+     */
+    public boolean compareAndSetStatus(VehicleStatus expected, VehicleStatus next) {
+        return STATUS.compareAndSet(this, expected, next);
+    }
+    
     @Override
     public String toString() {
-        return vehicleId + " - " + vehicleName + " (" + vehicleType + ")";
+        return getVehicleId() + " - " + vehicleName + " (" + vehicleType + ")";
     }
 }
 
@@ -0,0 +1,42 @@
+package model;
+
+/**
+ * Status of a vehicle in the Rental System.
+ * Each status maps to the display string shown in the views.
+ */
+public enum VehicleStatus {
+    AVAILABLE("Available"),
+    RENTED("Rented"),
+    UNDER_MAINTENANCE("Under Maintenance"),
+    LOST("Lost");
+    
+    private final String displayName;
+    
+    VehicleStatus(String displayName) {
+        this.displayName = displayName;
+    }
+    
+    public String getDisplayName() {
+        return displayName;
+    }
+    
+    /**
+     * Find the status shown as the given display string.
+     * @param displayName Display string (e.g., "Under Maintenance")
+     * @return Matching status
+     * @throws IllegalArgumentException if no status has that display string
+     */
+    public static VehicleStatus fromDisplayName(String displayName) {
+        for (VehicleStatus status : values()) {
+            if (status.displayName.equals(displayName)) {
+                return status;
+            }
+        }
+        throw new IllegalArgumentException("Unknown vehicle status: " + displayName);
+    }
+    
+    @Override
+    public String toString() {
+        return displayName;
+    }
+}
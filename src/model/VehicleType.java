@@ -0,0 +1,41 @@
+package model;
+
+/**
+ * Type of a vehicle in the Rental System.
+ * Each type maps to the display string shown in the views.
+ */
+public enum VehicleType {
+    CAR("Car"),
+    MOTORBIKE("Motorbike"),
+    TRUCK("Truck");
+    
+    private final String displayName;
+    
+    VehicleType(String displayName) {
+        this.displayName = displayName;
+    }
+    
+    public String getDisplayName() {
+        return displayName;
+    }
+    
+    /**
+     * Find the type shown as the given display string.
+     * @param displayName Display string (e.g., "Motorbike")
+     * @return Matching type
+     * @throws IllegalArgumentException if no type has that display string
+     */
+    public static VehicleType fromDisplayName(String displayName) {
+        for (VehicleType type : values()) {
+            if (type.displayName.equals(displayName)) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Unknown vehicle type: " + displayName);
+    }
+    
+    @Override
+    public String toString() {
+        return displayName;
+    }
+}
@@ -1,20 +1,33 @@
 package view;
 
 import controller.VehicleController;
+import controller.VehicleQuery;
 import controller.RentalController;
+import controller.ChangeCoalescer;
+import controller.Subscription;
 import controller.LoginController;
+import controller.RentalChangeEvent;
+import controller.RevenueBucket;
+import controller.VehicleChangeEvent;
 import model.Vehicle;
+import model.VehicleStatus;
+import model.VehicleType;
 import model.Rental;
 
 import javax.swing.*;
 import javax.swing.table.DefaultTableCellRenderer;
-import javax.swing.table.DefaultTableModel;
 import javax.swing.table.JTableHeader;
 import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.awt.geom.RoundRectangle2D;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -28,8 +41,9 @@ public class AdminFrame extends JFrame {
     
     private JTable vehicleTable;
     private JTable rentalTable;
-    private DefaultTableModel vehicleTableModel;
-    private DefaultTableModel rentalTableModel;
+    private PagedTableLoader<Rental> rentalPages;
+    private KeyedTableModel vehicleTableModel;
+    private KeyedTableModel rentalTableModel;
     
     // Stat card labels for real-time updates
     private JLabel availableCountLabel;
@@ -38,6 +52,11 @@ public class AdminFrame extends JFrame {
     private JLabel totalRevenueLabel;
     private JPanel statsPanel;
     
+    // Trends tab
+    private JComboBox<String> trendRangeBox;
+    private RevenueChart revenueChart;
+    private JLabel trendSummaryLabel;
+    
     private int mouseX, mouseY;
     
     // Color scheme
@@ -54,15 +73,27 @@ public class AdminFrame extends JFrame {
     private static final Color TEXT_SECONDARY = new Color(127, 140, 141);
     private static final Color BORDER_COLOR = new Color(220, 225, 230);
     
+    // Change events arriving within this window are applied together
+    private static final int REFRESH_WINDOW_MS = 50;
+    
+    // Controller subscriptions, closed when the frame is disposed
+    private final List<Subscription> subscriptions = new ArrayList<>();
+    
+    // Snapshot versions the stats panel was last computed from
+    private long statsVehicleVersion = -1;
+    private long statsRentalVersion = -1;
+    
     public AdminFrame(VehicleController vehicleController, RentalController rentalController, 
                       LoginController loginController) {
         this.vehicleController = vehicleController;
         this.rentalController = rentalController;
         this.loginController = loginController;
         
-        // Register as listeners for data changes
-        vehicleController.addVehicleDataListener(this::onVehicleDataChanged);
-        rentalController.addRentalDataListener(this::onRentalDataChanged);
+        // Register as listeners for data changes, merged into one update per refresh window
+        ChangeCoalescer changes = new ChangeCoalescer(SwingUtilities::invokeLater, REFRESH_WINDOW_MS,
+            this::applyChanges);
+        subscriptions.add(vehicleController.addVehicleDataListener(changes));
+        subscriptions.add(rentalController.addRentalDataListener(changes));
         
         setupUI();
         loadVehicleData();
@@ -70,34 +101,77 @@ public class AdminFrame extends JFrame {
     }
     
     /**
-     * Called when vehicle data changes - refresh the UI
+     * Unsubscribe from the controllers, which outlive this frame across logins
      */
-    private void onVehicleDataChanged() {
-        SwingUtilities.invokeLater(() -> {
-            loadVehicleData();
-            refreshStats();
-        });
+    @Override
+    public void dispose() {
+        for (Subscription subscription : subscriptions) {
+            subscription.close();
+        }
+        subscriptions.clear();
+        super.dispose();
     }
     
     /**
-     * Called when rental data changes - refresh the UI
+     * Called on the EDT with the merged data changes - patch the affected rows
      */
-    private void onRentalDataChanged() {
-        SwingUtilities.invokeLater(() -> {
+    private void applyChanges(List<VehicleChangeEvent> vehicleEvents, List<RentalChangeEvent> rentalEvents) {
+        for (VehicleChangeEvent event : vehicleEvents) {
+            applyVehicleChange(event);
+        }
+        for (RentalChangeEvent event : rentalEvents) {
+            applyRentalChange(event);
+        }
+        refreshStats();
+    }
+    
+    private void applyVehicleChange(VehicleChangeEvent event) {
+        if (event.getKind() == VehicleChangeEvent.Kind.RESET) {
+            loadVehicleData();
+            return;
+        }
+        for (String vehicleId : event.getVehicleIds()) {
+            Vehicle vehicle = vehicleController.getVehicleById(vehicleId);
+            if (vehicle == null) {
+                vehicleTableModel.removeRowByKey(vehicleId);
+            } else {
+                vehicleTableModel.putRow(vehicleRow(vehicle));
+            }
+        }
+    }
+    
+    private void applyRentalChange(RentalChangeEvent event) {
+        if (event.getKind() == RentalChangeEvent.Kind.RESET) {
             loadRentalData();
-            refreshStats();
-        });
+            return;
+        }
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+        for (String rentalId : event.getRentalIds()) {
+            Rental rental = rentalController.getRentalById(rentalId);
+            if (rental != null && rentalPages.isLoaded(rentalId)) {
+                rentalTableModel.putRow(rentalRow(rental, formatter));
+            }
+        }
     }
     
     /**
-     * Refresh the statistics panel with current counts
+     * Refresh the statistics panel with current counts.
+     * Skipped when neither controller has changed since the last refresh.
      */
     private void refreshStats() {
+        long vehicleVersion = vehicleController.getVersion();
+        long rentalVersion = rentalController.getSnapshot().getVersion();
+        if (vehicleVersion == statsVehicleVersion && rentalVersion == statsRentalVersion) {
+            return;
+        }
+        statsVehicleVersion = vehicleVersion;
+        statsRentalVersion = rentalVersion;
+        
         if (availableCountLabel != null) {
             availableCountLabel.setText(String.valueOf(vehicleController.getAvailableCount()));
         }
         if (totalVehiclesLabel != null) {
-            totalVehiclesLabel.setText(String.valueOf(vehicleController.getAllVehicles().size()));
+            totalVehiclesLabel.setText(String.valueOf(vehicleController.getVehicleCount()));
         }
         if (totalRentalsLabel != null) {
             totalRentalsLabel.setText(String.valueOf(rentalController.getTotalRentalCount()));
@@ -105,6 +179,7 @@ public class AdminFrame extends JFrame {
         if (totalRevenueLabel != null) {
             totalRevenueLabel.setText("$" + String.format("%.2f", rentalController.getTotalRevenue()));
         }
+        refreshTrends();
         
         // Force stats panel to repaint
         if (statsPanel != null) {
@@ -286,6 +361,9 @@ public class AdminFrame extends JFrame {
         JPanel statsPanel = createStatisticsPanel();
         tabbedPane.addTab("  📊 Statistics  ", statsPanel);
         
+        JPanel trendsPanel = createTrendsPanel();
+        tabbedPane.addTab("  📈 Trends  ", trendsPanel);
+        
         return tabbedPane;
     }
     
@@ -389,6 +467,11 @@ public class AdminFrame extends JFrame {
         deleteButton.addActionListener(e -> deleteSelectedVehicle());
         buttonPanel.add(deleteButton);
         
+        JButton importButton = createModernButton("📥 Import CSV", PURPLE_COLOR);
+        importButton.setPreferredSize(new Dimension(150, 42));
+        importButton.addActionListener(e -> importVehiclesFromCsv());
+        buttonPanel.add(importButton);
+        
         buttonPanel.add(Box.createHorizontalStrut(20));
         
         JButton refreshButton = createModernButton("🔄 Refresh", INFO_COLOR);
@@ -400,7 +483,7 @@ public class AdminFrame extends JFrame {
         
         // Table with enhanced styling
         String[] columns = {"ID", "Vehicle Name", "Type", "Price/Day ($)", "Status"};
-        vehicleTableModel = new DefaultTableModel(columns, 0) {
+        vehicleTableModel = new KeyedTableModel(columns) {
             @Override
             public boolean isCellEditable(int row, int column) {
                 return false;
@@ -472,7 +555,7 @@ public class AdminFrame extends JFrame {
         
         String[] columns = {"Rental ID", "Customer", "Vehicle", "Duration", "Total Cost ($)", 
                            "Start Date/Time", "Expected Return", "Status"};
-        rentalTableModel = new DefaultTableModel(columns, 0) {
+        rentalTableModel = new KeyedTableModel(columns) {
             @Override
             public boolean isCellEditable(int row, int column) {
                 return false;
@@ -515,6 +598,13 @@ public class AdminFrame extends JFrame {
         scrollPane.getViewport().setBackground(CARD_BG);
         panel.add(scrollPane, BorderLayout.CENTER);
         
+        // Rental history is loaded a page at a time as the table is scrolled
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+        rentalPages = new PagedTableLoader<>(scrollPane, rentalTableModel,
+            (cursor, pageSize) -> rentalController.getRentalsPage(null, RentalController.SortKey.RENTAL_ID,
+                cursor, pageSize),
+            rental -> rentalRow(rental, formatter));
+        
         return panel;
     }
     
@@ -564,7 +654,7 @@ public class AdminFrame extends JFrame {
         gbc.weighty = 1.0;
         
         int availableCount = vehicleController.getAvailableCount();
-        int totalVehicles = vehicleController.getAllVehicles().size();
+        int totalVehicles = vehicleController.getVehicleCount();
         int totalRentals = rentalController.getTotalRentalCount();
         double totalRevenue = rentalController.getTotalRevenue();
         
@@ -596,6 +686,77 @@ public class AdminFrame extends JFrame {
         return panel;
     }
     
+    private JPanel createTrendsPanel() {
+        JPanel panel = new JPanel(new BorderLayout(0, 15));
+        panel.setBackground(BACKGROUND);
+        panel.setBorder(BorderFactory.createEmptyBorder(25, 25, 25, 25));
+        
+        JPanel controlPanel = new JPanel(new BorderLayout());
+        controlPanel.setBackground(BACKGROUND);
+        
+        trendSummaryLabel = new JLabel();
+        trendSummaryLabel.setFont(new Font("Segoe UI", Font.BOLD, 15));
+        trendSummaryLabel.setForeground(TEXT_PRIMARY);
+        controlPanel.add(trendSummaryLabel, BorderLayout.WEST);
+        
+        trendRangeBox = new JComboBox<>(new String[] {"Last 12 months", "Last 30 days", "Last 48 hours"});
+        trendRangeBox.setFont(new Font("Segoe UI", Font.PLAIN, 13));
+        trendRangeBox.addActionListener(e -> refreshTrends());
+        controlPanel.add(trendRangeBox, BorderLayout.EAST);
+        
+        panel.add(controlPanel, BorderLayout.NORTH);
+        
+        revenueChart = new RevenueChart(INFO_COLOR, TEXT_SECONDARY, BORDER_COLOR);
+        JPanel chartCard = new JPanel(new BorderLayout());
+        chartCard.setBackground(CARD_BG);
+        chartCard.setBorder(BorderFactory.createLineBorder(BORDER_COLOR, 1));
+        chartCard.add(revenueChart, BorderLayout.CENTER);
+        panel.add(chartCard, BorderLayout.CENTER);
+        
+        refreshTrends();
+        return panel;
+    }
+    
+    /**
+     * Redraw the revenue chart for the selected range from the controller's rollups
+     */
+    private void refreshTrends() {
+        if (revenueChart == null) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        RentalController.Granularity granularity;
+        LocalDateTime from;
+        DateTimeFormatter labelFormat;
+        switch (trendRangeBox.getSelectedIndex()) {
+            case 1:
+                granularity = RentalController.Granularity.DAY;
+                from = now.minusDays(29);
+                labelFormat = DateTimeFormatter.ofPattern("dd MMM");
+                break;
+            case 2:
+                granularity = RentalController.Granularity.HOUR;
+                from = now.minusHours(47);
+                labelFormat = DateTimeFormatter.ofPattern("HH:00");
+                break;
+            default:
+                granularity = RentalController.Granularity.MONTH;
+                from = now.minusMonths(11);
+                labelFormat = DateTimeFormatter.ofPattern("MMM yy");
+                break;
+        }
+        List<RevenueBucket> buckets = rentalController.getRevenueTrend(granularity, from, now);
+        
+        long revenueCents = 0;
+        int booked = 0;
+        for (RevenueBucket bucket : buckets) {
+            revenueCents += bucket.getRevenueCents();
+            booked += bucket.getBookedCount();
+        }
+        trendSummaryLabel.setText(String.format("Revenue $%.2f   •   %d rentals booked", revenueCents / 100.0, booked));
+        revenueChart.setBuckets(buckets, labelFormat);
+    }
+    
     /**
      * Helper method to extract the value JLabel from a stat card
      */
@@ -687,6 +848,23 @@ public class AdminFrame extends JFrame {
         return card;
     }
     
+    private void importVehiclesFromCsv() {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setDialogTitle("Import Vehicles (name, type, price, status)");
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        
+        try (Reader reader = Files.newBufferedReader(chooser.getSelectedFile().toPath(), StandardCharsets.UTF_8)) {
+            int imported = vehicleController.importVehicles(reader);
+            showSuccessDialog("Imported " + imported + " vehicles");
+        } catch (IOException ex) {
+            showErrorDialog("Could not read file: " + ex.getMessage());
+        } catch (IllegalArgumentException ex) {
+            showErrorDialog("Import failed, no vehicles added. " + ex.getMessage());
+        }
+    }
+    
     private void showAddVehicleDialog() {
         JPanel dialogPanel = new JPanel(new BorderLayout(0, 20));
         dialogPanel.setBackground(CARD_BG);
@@ -769,8 +947,8 @@ public class AdminFrame extends JFrame {
                 return;
             }
             
-            vehicleController.addVehicle(name, type, price, status);
-            loadVehicleData();
+            vehicleController.addVehicle(name, VehicleType.fromDisplayName(type), price,
+                VehicleStatus.fromDisplayName(status));
             showSuccessDialog("Vehicle added successfully!");
         }
     }
@@ -809,12 +987,12 @@ public class AdminFrame extends JFrame {
         nameField.setText(vehicle.getVehicleName());
         String[] types = {"Car", "Motorbike", "Truck"};
         JComboBox<String> typeCombo = createModernComboBox(types);
-        typeCombo.setSelectedItem(vehicle.getVehicleType());
+        typeCombo.setSelectedItem(vehicle.getVehicleType().getDisplayName());
         JTextField priceField = createModernTextField();
         priceField.setText(String.valueOf(vehicle.getPricePerDay()));
         String[] statuses = {"Available", "Rented", "Under Maintenance"};
         JComboBox<String> statusCombo = createModernComboBox(statuses);
-        statusCombo.setSelectedItem(vehicle.getStatus());
+        statusCombo.setSelectedItem(vehicle.getStatus().getDisplayName());
         
         gbc.gridx = 0; gbc.gridy = 0; gbc.weightx = 0;
         formPanel.add(createFieldLabel("Vehicle Name:"), gbc);
@@ -871,8 +1049,8 @@ public class AdminFrame extends JFrame {
                 return;
             }
             
-            vehicleController.updateVehicle(vehicleId, name, type, price, status);
-            loadVehicleData();
+            vehicleController.updateVehicle(vehicleId, name, VehicleType.fromDisplayName(type), price,
+                VehicleStatus.fromDisplayName(status));
             showSuccessDialog("Vehicle updated successfully!");
         }
     }
@@ -896,7 +1074,6 @@ public class AdminFrame extends JFrame {
         if (confirm == JOptionPane.YES_OPTION) {
             if (vehicleController.deleteVehicle(vehicleId)) {
                 showSuccessDialog("Vehicle deleted successfully!");
-                loadVehicleData();
             } else {
                 showErrorDialog("Failed to delete vehicle");
             }
@@ -905,38 +1082,38 @@ public class AdminFrame extends JFrame {
     
     private void loadVehicleData() {
         vehicleTableModel.setRowCount(0);
-        List<Vehicle> vehicles = vehicleController.getAllVehicles();
+        List<Vehicle> vehicles = vehicleController.query(new VehicleQuery());
         
         for (Vehicle vehicle : vehicles) {
-            Object[] row = {
-                vehicle.getVehicleId(),
-                vehicle.getVehicleName(),
-                vehicle.getVehicleType(),
-                String.format("%.2f", vehicle.getPricePerDay()),
-                vehicle.getStatus()
-            };
-            vehicleTableModel.addRow(row);
+            vehicleTableModel.addRow(vehicleRow(vehicle));
         }
     }
     
+    private Object[] vehicleRow(Vehicle vehicle) {
+        return new Object[] {
+            vehicle.getVehicleId(),
+            vehicle.getVehicleName(),
+            vehicle.getVehicleType().getDisplayName(),
+            String.format("%.2f", vehicle.getPricePerDay()),
+            vehicle.getStatus().getDisplayName()
+        };
+    }
+    
     private void loadRentalData() {
-        rentalTableModel.setRowCount(0);
-        List<Rental> rentals = rentalController.getAllRentals();
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
-        
-        for (Rental rental : rentals) {
-            Object[] row = {
-                rental.getRentalId(),
-                rental.getCustomerUsername(),
-                rental.getVehicleName(),
-                rental.getFormattedDuration(),
-                String.format("%.2f", rental.getTotalCost()),
-                rental.getRentalDate() != null ? rental.getRentalDate().format(formatter) : "-",
-                rental.getExpectedReturnDate() != null ? rental.getExpectedReturnDate().format(formatter) : "-",
-                rental.getStatus()
-            };
-            rentalTableModel.addRow(row);
-        }
+        rentalPages.reload();
+    }
+    
+    private Object[] rentalRow(Rental rental, DateTimeFormatter formatter) {
+        return new Object[] {
+            rental.getRentalId(),
+            rental.getCustomerUsername(),
+            rental.getVehicleName(),
+            rental.getFormattedDuration(),
+            String.format("%.2f", rental.getTotalCost()),
+            rental.getRentalDate() != null ? rental.getRentalDate().format(formatter) : "-",
+            rental.getExpectedReturnDate() != null ? rental.getExpectedReturnDate().format(formatter) : "-",
+            rental.getStatus()
+        };
     }
     
     private JTextField createModernTextField() {
@@ -1,15 +1,23 @@
 package view;
 
 import controller.VehicleController;
+import controller.VehicleQuery;
 import controller.RentalController;
+import controller.ChangeCoalescer;
+import controller.Subscription;
 import controller.LoginController;
+import controller.RentalChangeEvent;
+import controller.VehicleChangeEvent;
 import model.Vehicle;
+import model.VehicleType;
 import model.Rental;
+import model.Reservation;
 import model.User;
 
 import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import javax.swing.table.DefaultTableCellRenderer;
-import javax.swing.table.DefaultTableModel;
 import javax.swing.table.JTableHeader;
 import java.awt.*;
 import java.awt.event.*;
@@ -19,6 +27,7 @@ import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.Calendar;
 import java.util.Date;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -34,9 +43,13 @@ public class CustomerFrame extends JFrame {
     private JTable availableTable;
     private JTable rentalTable;
     private JTable historyTable;
-    private DefaultTableModel availableTableModel;
-    private DefaultTableModel rentalTableModel;
-    private DefaultTableModel historyTableModel;
+    private PagedTableLoader<Rental> historyPages;
+    private KeyedTableModel availableTableModel;
+    private KeyedTableModel rentalTableModel;
+    private KeyedTableModel historyTableModel;
+    
+    // Name filter of the available vehicles table, or null when showing all
+    private String availableSearch;
     
     // Stat card labels for real-time updates
     private JLabel carCountLabel;
@@ -45,6 +58,10 @@ public class CustomerFrame extends JFrame {
     private JLabel totalAvailableLabel;
     private JPanel statsPanel;
     
+    // Typeahead suggestions for the vehicle search field
+    private JPopupMenu suggestionPopup;
+    private boolean applyingSuggestion;
+    
     private int mouseX, mouseY;
     
     // Color scheme - matching AdminFrame
@@ -61,6 +78,15 @@ public class CustomerFrame extends JFrame {
     private static final Color TEXT_SECONDARY = new Color(127, 140, 141);
     private static final Color BORDER_COLOR = new Color(220, 225, 230);
     
+    // Change events arriving within this window are applied together
+    private static final int REFRESH_WINDOW_MS = 50;
+    
+    // Bookings starting further ahead than this are reserved instead of rented now
+    private static final int RESERVATION_LEAD_HOURS = 1;
+    
+    // Controller subscriptions, closed when the frame is disposed
+    private final List<Subscription> subscriptions = new ArrayList<>();
+    
     public CustomerFrame(VehicleController vehicleController, RentalController rentalController,
                         LoginController loginController, User currentUser) {
         this.vehicleController = vehicleController;
@@ -68,35 +94,69 @@ public class CustomerFrame extends JFrame {
         this.loginController = loginController;
         this.currentUser = currentUser;
         
-        // Register as listeners for data changes
-        vehicleController.addVehicleDataListener(this::onVehicleDataChanged);
-        rentalController.addRentalDataListener(this::onRentalDataChanged);
+        // Register as listeners for data changes, merged into one update per refresh window
+        ChangeCoalescer changes = new ChangeCoalescer(SwingUtilities::invokeLater, REFRESH_WINDOW_MS,
+            this::applyChanges);
+        subscriptions.add(vehicleController.addVehicleDataListener(changes));
+        subscriptions.add(rentalController.addRentalDataListener(changes));
         
         setupUI();
         loadData();
     }
     
     /**
-     * Called when vehicle data changes - refresh the UI
+     * Unsubscribe from the controllers, which outlive this frame across logins
      */
-    private void onVehicleDataChanged() {
-        SwingUtilities.invokeLater(() -> {
-            loadAvailableVehicles();
-            loadMyRentals();
-            refreshStats();
-        });
+    @Override
+    public void dispose() {
+        for (Subscription subscription : subscriptions) {
+            subscription.close();
+        }
+        subscriptions.clear();
+        super.dispose();
+    }
+    
+    /**
+     * Called on the EDT with the merged data changes - patch the affected rows
+     */
+    private void applyChanges(List<VehicleChangeEvent> vehicleEvents, List<RentalChangeEvent> rentalEvents) {
+        for (VehicleChangeEvent event : vehicleEvents) {
+            applyVehicleChange(event);
+        }
+        for (RentalChangeEvent event : rentalEvents) {
+            applyRentalChange(event);
+        }
+        refreshStats();
+    }
+    
+    private void applyVehicleChange(VehicleChangeEvent event) {
+        if (event.getKind() == VehicleChangeEvent.Kind.RESET) {
+            showAvailableVehicles();
+            return;
+        }
+        String searchLower = availableSearch == null ? null : availableSearch.toLowerCase();
+        for (String vehicleId : event.getVehicleIds()) {
+            Vehicle vehicle = vehicleController.getVehicleById(vehicleId);
+            boolean shown = vehicle != null
+                && VehicleController.AVAILABLE_STATUSES.contains(vehicle.getStatus())
+                && (searchLower == null || vehicle.getVehicleName().toLowerCase().contains(searchLower));
+            if (shown) {
+                availableTableModel.putRow(availableRow(vehicle));
+            } else {
+                availableTableModel.removeRowByKey(vehicleId);
+            }
+        }
     }
     
     /**
      * Refresh the stats panel with current counts
      */
     private void refreshStats() {
-        List<Vehicle> availableVehicles = vehicleController.getAvailableVehicles();
-        int totalAvailable = availableVehicles.size();
+        int totalAvailable = vehicleController.getAvailableCount();
         
-        long carCount = availableVehicles.stream().filter(v -> "Car".equals(v.getVehicleType())).count();
-        long motorbikeCount = availableVehicles.stream().filter(v -> "Motorbike".equals(v.getVehicleType())).count();
-        long truckCount = availableVehicles.stream().filter(v -> "Truck".equals(v.getVehicleType())).count();
+        int carCount = vehicleController.getAvailableCountByType(VehicleType.CAR);
+        int motorbikeCount = vehicleController.getAvailableCountByType(VehicleType.MOTORBIKE);
+        int truckCount = vehicleController.getAvailableCountByType(VehicleType.TRUCK);
         
         // Update labels
         if (carCountLabel != null) {
@@ -119,15 +179,43 @@ public class CustomerFrame extends JFrame {
         }
     }
     
-    /**
-     * Called when rental data changes - refresh the UI
-     */
-    private void onRentalDataChanged() {
-        SwingUtilities.invokeLater(() -> {
+    private void applyRentalChange(RentalChangeEvent event) {
+        if (event.getKind() == RentalChangeEvent.Kind.RESET) {
             loadMyRentals();
             loadRentalHistory();
-            refreshStats();
-        });
+            return;
+        }
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+        for (String rentalId : event.getRentalIds()) {
+            Rental rental = rentalController.getRentalById(rentalId);
+            if (rental == null) {
+                applyReservationChange(rentalId, formatter);
+                continue;
+            }
+            if (!rental.getCustomerUsername().equals(currentUser.getUsername())) {
+                continue;
+            }
+            if ("Active".equals(rental.getStatus())) {
+                rentalTableModel.putRow(myRentalRow(rental, formatter));
+            } else {
+                rentalTableModel.removeRowByKey(rentalId);
+            }
+            if (historyPages.isLoaded(rentalId)) {
+                historyTableModel.putRow(historyRow(rental, formatter));
+            }
+        }
+    }
+    
+    private void applyReservationChange(String reservationId, DateTimeFormatter formatter) {
+        Reservation reservation = rentalController.getReservationById(reservationId);
+        if (reservation == null || !reservation.getCustomerUsername().equals(currentUser.getUsername())) {
+            return;
+        }
+        if ("Booked".equals(reservation.getStatus())) {
+            rentalTableModel.putRow(reservationRow(reservation, formatter));
+        } else {
+            rentalTableModel.removeRowByKey(reservationId);
+        }
     }
     
     private void setupUI() {
@@ -404,10 +492,33 @@ public class CustomerFrame extends JFrame {
             @Override
             public void keyPressed(KeyEvent e) {
                 if (e.getKeyCode() == KeyEvent.VK_ENTER) {
+                    suggestionPopup.setVisible(false);
                     searchVehicles(searchField.getText());
+                } else if (e.getKeyCode() == KeyEvent.VK_ESCAPE) {
+                    suggestionPopup.setVisible(false);
                 }
             }
         });
+        
+        // Show suggestions as the user types
+        suggestionPopup = new JPopupMenu();
+        suggestionPopup.setFocusable(false);
+        searchField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                scheduleSuggestions(searchField);
+            }
+            
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                scheduleSuggestions(searchField);
+            }
+            
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                // Attribute changes do not affect suggestions
+            }
+        });
         searchPanel.add(searchField);
         
         JButton searchButton = createModernButton("Search", INFO_COLOR);
@@ -433,7 +544,7 @@ public class CustomerFrame extends JFrame {
         
         // Table
         String[] columns = {"ID", "Vehicle Name", "Type", "Price/Day ($)"};
-        availableTableModel = new DefaultTableModel(columns, 0) {
+        availableTableModel = new KeyedTableModel(columns) {
             @Override
             public boolean isCellEditable(int row, int column) {
                 return false;
@@ -489,12 +600,11 @@ public class CustomerFrame extends JFrame {
         statsPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 15, 10));
         statsPanel.setBackground(BACKGROUND);
         
-        List<Vehicle> availableVehicles = vehicleController.getAvailableVehicles();
-        int totalAvailable = availableVehicles.size();
+        int totalAvailable = vehicleController.getAvailableCount();
         
-        long carCount = availableVehicles.stream().filter(v -> "Car".equals(v.getVehicleType())).count();
-        long motorbikeCount = availableVehicles.stream().filter(v -> "Motorbike".equals(v.getVehicleType())).count();
-        long truckCount = availableVehicles.stream().filter(v -> "Truck".equals(v.getVehicleType())).count();
+        int carCount = vehicleController.getAvailableCountByType(VehicleType.CAR);
+        int motorbikeCount = vehicleController.getAvailableCountByType(VehicleType.MOTORBIKE);
+        int truckCount = vehicleController.getAvailableCountByType(VehicleType.TRUCK);
         
         statsPanel.add(createMiniStatCard("🚗 Cars", String.valueOf(carCount), INFO_COLOR, true));
         statsPanel.add(createMiniStatCard("🏍️ Motorbikes", String.valueOf(motorbikeCount), SUCCESS_COLOR, true));
@@ -561,7 +671,7 @@ public class CustomerFrame extends JFrame {
         
         // Table - Updated to show date/time instead of days
         String[] columns = {"Rental ID", "Vehicle", "Start Date/Time", "Expected Return", "Duration", "Status"};
-        rentalTableModel = new DefaultTableModel(columns, 0) {
+        rentalTableModel = new KeyedTableModel(columns) {
             @Override
             public boolean isCellEditable(int row, int column) {
                 return false;
@@ -587,6 +697,9 @@ public class CustomerFrame extends JFrame {
                     if ("Active".equals(value)) {
                         c.setForeground(SUCCESS_COLOR);
                         setFont(getFont().deriveFont(Font.BOLD));
+                    } else if ("Booked".equals(value)) {
+                        c.setForeground(INFO_COLOR);
+                        setFont(getFont().deriveFont(Font.BOLD));
                     }
                 }
                 
@@ -617,6 +730,16 @@ public class CustomerFrame extends JFrame {
         lostButton.addActionListener(e -> reportLostVehicle());
         buttonPanel.add(lostButton);
 
+        JButton startButton = createModernButton("▶️ Start Reservation", SUCCESS_COLOR);
+        startButton.setPreferredSize(new Dimension(190, 42));
+        startButton.addActionListener(e -> startSelectedReservation());
+        buttonPanel.add(startButton);
+
+        JButton cancelButton = createModernButton("✖️ Cancel Reservation", PURPLE_COLOR);
+        cancelButton.setPreferredSize(new Dimension(200, 42));
+        cancelButton.addActionListener(e -> cancelSelectedReservation());
+        buttonPanel.add(cancelButton);
+
         JButton refreshButton = createModernButton("🔄 Refresh", INFO_COLOR);
         refreshButton.setPreferredSize(new Dimension(120, 42));
         refreshButton.addActionListener(e -> loadMyRentals());
@@ -648,7 +771,9 @@ public class CustomerFrame extends JFrame {
         iconLabel.setFont(new Font("Segoe UI Emoji", Font.PLAIN, 24));
         infoPanel.add(iconLabel, BorderLayout.WEST);
         
-        JLabel infoLabel = new JLabel("<html><b>Active Rentals</b> - Maximum 3 vehicles can be rented at once. Double-click a row or select and click Return to return a vehicle.</html>");
+        JLabel infoLabel = new JLabel("<html><b>Active Rentals & Reservations</b> - Maximum " + RentalController.MAX_ACTIVE_RENTALS
+            + " vehicles can be rented and " + RentalController.MAX_BOOKED_RESERVATIONS
+            + " reserved at once. Select a rental and click Return, or start a reservation when you pick the vehicle up.</html>");
         infoLabel.setFont(new Font("Segoe UI", Font.PLAIN, 13));
         infoLabel.setForeground(TEXT_PRIMARY);
         infoPanel.add(infoLabel, BorderLayout.CENTER);
@@ -673,7 +798,7 @@ public class CustomerFrame extends JFrame {
         
         String[] columns = {"Rental ID", "Vehicle", "Duration", "Total Cost ($)",
                            "Start Date/Time", "Expected Return", "Give-Back Date", "Status"};
-        historyTableModel = new DefaultTableModel(columns, 0) {
+        historyTableModel = new KeyedTableModel(columns) {
             @Override
             public boolean isCellEditable(int row, int column) {
                 return false;
@@ -718,6 +843,13 @@ public class CustomerFrame extends JFrame {
         scrollPane.getViewport().setBackground(CARD_BG);
         panel.add(scrollPane, BorderLayout.CENTER);
         
+        // History is loaded a page at a time as the table is scrolled
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+        historyPages = new PagedTableLoader<>(scrollPane, historyTableModel,
+            (cursor, pageSize) -> rentalController.getRentalsPage(currentUser.getUsername(),
+                RentalController.SortKey.RENTAL_ID, cursor, pageSize),
+            rental -> historyRow(rental, formatter));
+        
         return panel;
     }
     
@@ -781,29 +913,49 @@ public class CustomerFrame extends JFrame {
         return field;
     }
     
-    private void searchVehicles(String searchText) {
-        availableTableModel.setRowCount(0);
-        
-        List<Vehicle> vehicles;
-        if (searchText.trim().isEmpty()) {
-            vehicles = vehicleController.getAvailableVehicles();
-        } else {
-            vehicles = vehicleController.searchVehiclesByName(searchText);
-            vehicles.removeIf(v -> !"Available".equals(v.getStatus()) && !"Under Maintenance".equals(v.getStatus()));
+    private void scheduleSuggestions(JTextField searchField) {
+        // Text set from a chosen suggestion should not reopen the popup
+        if (!applyingSuggestion) {
+            SwingUtilities.invokeLater(() -> showSuggestions(searchField));
+        }
+    }
+    
+    /**
+     * Show typeahead suggestions for the current search text
+     */
+    private void showSuggestions(JTextField searchField) {
+        suggestionPopup.setVisible(false);
+        suggestionPopup.removeAll();
+        if (!searchField.isShowing()) {
+            return;
         }
         
-        if (vehicles.isEmpty()) {
-            showInfoDialog("No available vehicles found matching your search.");
+        List<Vehicle> suggestions = vehicleController.autocomplete(searchField.getText(), 8);
+        if (suggestions.isEmpty()) {
+            return;
         }
         
-        for (Vehicle vehicle : vehicles) {
-            Object[] row = {
-                vehicle.getVehicleId(),
-                vehicle.getVehicleName(),
-                vehicle.getVehicleType(),
-                String.format("%.2f", vehicle.getPricePerDay())
-            };
-            availableTableModel.addRow(row);
+        for (Vehicle vehicle : suggestions) {
+            JMenuItem item = new JMenuItem(vehicle.getVehicleName() + " (" + vehicle.getVehicleType().getDisplayName() + ") - $"
+                + String.format("%.2f", vehicle.getPricePerDay()) + "/day");
+            item.setFont(new Font("Segoe UI", Font.PLAIN, 13));
+            item.addActionListener(e -> {
+                applyingSuggestion = true;
+                searchField.setText(vehicle.getVehicleName());
+                applyingSuggestion = false;
+                suggestionPopup.setVisible(false);
+                searchVehicles(vehicle.getVehicleName());
+            });
+            suggestionPopup.add(item);
+        }
+        suggestionPopup.show(searchField, 0, searchField.getHeight());
+        searchField.requestFocusInWindow();
+    }
+    
+    private void searchVehicles(String searchText) {
+        availableSearch = searchText.trim().isEmpty() ? null : searchText;
+        if (showAvailableVehicles() == 0) {
+            showInfoDialog("No available vehicles found matching your search.");
         }
     }
     
@@ -818,16 +970,15 @@ public class CustomerFrame extends JFrame {
         String vehicleName = (String) availableTableModel.getValueAt(selectedRow, 1);
         double pricePerDay = Double.parseDouble((String) availableTableModel.getValueAt(selectedRow, 3));
         
-        List<Rental> activeRentals = rentalController.getActiveRentalsByCustomer(currentUser.getUsername());
-        for (Rental rental : activeRentals) {
+        for (Rental rental : rentalController.getActiveRentalsByCustomer(currentUser.getUsername())) {
             if (rental.getVehicleId().equals(vehicleId)) {
                 showWarningDialog("You already have this vehicle rented!");
                 return;
             }
         }
         
-        if (activeRentals.size() >= 3) {
-            showWarningDialog("Maximum 3 active rentals allowed!\nReturn some vehicles first.");
+        if (rentalController.getActiveRentalCount(currentUser.getUsername()) >= RentalController.MAX_ACTIVE_RENTALS) {
+            showRentalLimitWarning();
             return;
         }
         
@@ -978,20 +1129,38 @@ public class CustomerFrame extends JFrame {
                 }
                 
                 double totalCost = Double.parseDouble(costLabel.getText().replace("$", ""));
+                boolean reserve = startDateTime.isAfter(LocalDateTime.now().plusHours(RESERVATION_LEAD_HOURS));
                 
                 int confirm = JOptionPane.showConfirmDialog(this,
-                    "<html>Rent <b>" + vehicleName + "</b>?<br><br>" +
+                    "<html>" + (reserve ? "Reserve" : "Rent") + " <b>" + vehicleName + "</b>?<br><br>" +
                     "Start: " + startDateTime.format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm")) + "<br>" +
                     "Return: " + endDateTime.format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm")) + "<br>" +
                     "Total Cost: <b style='color: #27ae60;'>$" + String.format("%.2f", totalCost) + "</b></html>",
-                    "Confirm Rental", JOptionPane.YES_NO_OPTION);
+                    reserve ? "Confirm Reservation" : "Confirm Rental", JOptionPane.YES_NO_OPTION);
                 
-                if (confirm == JOptionPane.YES_OPTION) {
+                if (confirm == JOptionPane.YES_OPTION && reserve) {
+                    Reservation reservation = rentalController.reserveVehicle(
+                        currentUser.getUsername(), vehicleId, startDateTime, endDateTime);
+                    
+                    if (reservation != null) {
+                        showSuccessDialog(
+                            "<html><b>📅 Reservation Confirmed!</b><br><br>" +
+                            "<b>Reservation ID:</b> " + reservation.getReservationId() + "<br>" +
+                            "<b>Vehicle:</b> " + vehicleName + "<br>" +
+                            "<b>Start:</b> " + startDateTime.format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm")) + "<br>" +
+                            "<b>Return:</b> " + endDateTime.format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm")) + "<br>" +
+                            "<b>Total:</b> $" + String.format("%.2f", totalCost) + "</html>");
+                    } else if (rentalController.getBookedReservationsByCustomer(currentUser.getUsername()).size()
+                            >= RentalController.MAX_BOOKED_RESERVATIONS) {
+                        showReservationLimitWarning();
+                    } else {
+                        showErrorDialog("This vehicle is already booked for part of that period.");
+                    }
+                } else if (confirm == JOptionPane.YES_OPTION) {
                     Rental rental = rentalController.rentVehicle(
                         currentUser.getUsername(), vehicleId, startDateTime, endDateTime);
                     
                     if (rental != null) {
-                        loadData();
                         showSuccessDialog(
                             "<html><b>🎉 Rental Successful!</b><br><br>" +
                             "<b>Rental ID:</b> " + rental.getRentalId() + "<br>" +
@@ -999,8 +1168,11 @@ public class CustomerFrame extends JFrame {
                             "<b>Start:</b> " + startDateTime.format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm")) + "<br>" +
                             "<b>Return:</b> " + endDateTime.format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm")) + "<br>" +
                             "<b>Total:</b> $" + String.format("%.2f", totalCost) + "</html>");
+                    } else if (rentalController.getActiveRentalCount(currentUser.getUsername())
+                            >= RentalController.MAX_ACTIVE_RENTALS) {
+                        showRentalLimitWarning();
                     } else {
-                        showErrorDialog("Failed to rent vehicle. It may have been rented by someone else.");
+                        showErrorDialog("Failed to rent vehicle. It may have been rented or reserved by someone else.");
                         loadAvailableVehicles();
                     }
                 }
@@ -1010,6 +1182,16 @@ public class CustomerFrame extends JFrame {
         }
     }
     
+    private void showRentalLimitWarning() {
+        showWarningDialog("Maximum " + RentalController.MAX_ACTIVE_RENTALS
+            + " active rentals allowed!\nReturn some vehicles first.");
+    }
+    
+    private void showReservationLimitWarning() {
+        showWarningDialog("Maximum " + RentalController.MAX_BOOKED_RESERVATIONS
+            + " reservations allowed!\nStart or cancel one first.");
+    }
+    
     private void returnSelectedVehicle() {
         int selectedRow = rentalTable.getSelectedRow();
         if (selectedRow == -1) {
@@ -1021,6 +1203,10 @@ public class CustomerFrame extends JFrame {
         String status = (String) rentalTableModel.getValueAt(selectedRow, 5);
         String vehicleName = (String) rentalTableModel.getValueAt(selectedRow, 1);
 
+        if ("Booked".equals(status)) {
+            showWarningDialog("This is a reservation. Start or cancel it instead.");
+            return;
+        }
         if (!"Active".equals(status)) {
             showWarningDialog("This rental has already been returned");
             return;
@@ -1033,7 +1219,6 @@ public class CustomerFrame extends JFrame {
 
         if (confirm == JOptionPane.YES_OPTION) {
             if (rentalController.returnVehicle(rentalId)) {
-                loadData();
                 showSuccessDialog("Vehicle returned successfully!\nThank you for renting with us.");
             } else {
                 showErrorDialog("Failed to process return");
@@ -1052,6 +1237,10 @@ public class CustomerFrame extends JFrame {
         String status = (String) rentalTableModel.getValueAt(selectedRow, 5);
         String vehicleName = (String) rentalTableModel.getValueAt(selectedRow, 1);
 
+        if ("Booked".equals(status)) {
+            showWarningDialog("This is a reservation. Start or cancel it instead.");
+            return;
+        }
         if (!"Active".equals(status)) {
             showWarningDialog("This rental is not active");
             return;
@@ -1106,7 +1295,6 @@ public class CustomerFrame extends JFrame {
 
             if (confirm == JOptionPane.YES_OPTION) {
                 if (rentalController.reportRentalAsLost(rentalId, giveBackDate)) {
-                    loadData();
                     showSuccessDialog("Lost vehicle reported successfully!\nPlease return the vehicle by the specified date.");
                 } else {
                     showErrorDialog("Failed to report vehicle as lost");
@@ -1115,6 +1303,69 @@ public class CustomerFrame extends JFrame {
         }
     }
     
+    private void startSelectedReservation() {
+        int selectedRow = rentalTable.getSelectedRow();
+        if (selectedRow == -1) {
+            showWarningDialog("Please select a reservation to start");
+            return;
+        }
+
+        String reservationId = (String) rentalTableModel.getValueAt(selectedRow, 0);
+        String status = (String) rentalTableModel.getValueAt(selectedRow, 5);
+        String vehicleName = (String) rentalTableModel.getValueAt(selectedRow, 1);
+
+        if (!"Booked".equals(status)) {
+            showWarningDialog("This is not a reservation");
+            return;
+        }
+
+        int confirm = JOptionPane.showConfirmDialog(this,
+            "<html>Pick up <b>" + vehicleName + "</b> now?<br><br>" +
+            "The reservation becomes an active rental for its booked period.</html>",
+            "Start Reservation", JOptionPane.YES_NO_OPTION, JOptionPane.QUESTION_MESSAGE);
+
+        if (confirm == JOptionPane.YES_OPTION) {
+            Rental rental = rentalController.startReservation(reservationId);
+            if (rental != null) {
+                showSuccessDialog("Reservation started!\nRental ID: " + rental.getRentalId());
+            } else if (rentalController.getActiveRentalCount(currentUser.getUsername())
+                    >= RentalController.MAX_ACTIVE_RENTALS) {
+                showRentalLimitWarning();
+            } else {
+                showErrorDialog("The vehicle is not available yet.\nIt may still be with the previous customer.");
+            }
+        }
+    }
+
+    private void cancelSelectedReservation() {
+        int selectedRow = rentalTable.getSelectedRow();
+        if (selectedRow == -1) {
+            showWarningDialog("Please select a reservation to cancel");
+            return;
+        }
+
+        String reservationId = (String) rentalTableModel.getValueAt(selectedRow, 0);
+        String status = (String) rentalTableModel.getValueAt(selectedRow, 5);
+        String vehicleName = (String) rentalTableModel.getValueAt(selectedRow, 1);
+
+        if (!"Booked".equals(status)) {
+            showWarningDialog("This is not a reservation");
+            return;
+        }
+
+        int confirm = JOptionPane.showConfirmDialog(this,
+            "<html>Cancel your reservation of <b>" + vehicleName + "</b>?</html>",
+            "Confirm Cancellation", JOptionPane.YES_NO_OPTION, JOptionPane.QUESTION_MESSAGE);
+
+        if (confirm == JOptionPane.YES_OPTION) {
+            if (rentalController.cancelReservation(reservationId)) {
+                showSuccessDialog("Reservation cancelled.");
+            } else {
+                showErrorDialog("Failed to cancel reservation");
+            }
+        }
+    }
+    
     private JLabel createFieldLabel(String text) {
         JLabel label = new JLabel(text);
         label.setFont(new Font("Segoe UI", Font.BOLD, 13));
@@ -1149,18 +1400,33 @@ public class CustomerFrame extends JFrame {
     }
     
     private void loadAvailableVehicles() {
+        availableSearch = null;
+        showAvailableVehicles();
+    }
+    
+    /**
+     * Fill the available vehicles table using the current name filter.
+     * @return Number of vehicles shown
+     */
+    private int showAvailableVehicles() {
         availableTableModel.setRowCount(0);
-        List<Vehicle> vehicles = vehicleController.getAvailableVehicles();
+        List<Vehicle> vehicles = vehicleController.query(new VehicleQuery()
+            .nameContains(availableSearch)
+            .statuses(VehicleController.AVAILABLE_STATUSES));
         
         for (Vehicle vehicle : vehicles) {
-            Object[] row = {
-                vehicle.getVehicleId(),
-                vehicle.getVehicleName(),
-                vehicle.getVehicleType(),
-                String.format("%.2f", vehicle.getPricePerDay())
-            };
-            availableTableModel.addRow(row);
+            availableTableModel.addRow(availableRow(vehicle));
         }
+        return vehicles.size();
+    }
+    
+    private Object[] availableRow(Vehicle vehicle) {
+        return new Object[] {
+            vehicle.getVehicleId(),
+            vehicle.getVehicleName(),
+            vehicle.getVehicleType().getDisplayName(),
+            String.format("%.2f", vehicle.getPricePerDay())
+        };
     }
     
     private void loadMyRentals() {
@@ -1169,36 +1435,50 @@ public class CustomerFrame extends JFrame {
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
         
         for (Rental rental : rentals) {
-            Object[] row = {
-                rental.getRentalId(),
-                rental.getVehicleName(),
-                rental.getRentalDate().format(formatter),
-                rental.getExpectedReturnDate().format(formatter),
-                rental.getFormattedDuration(),
-                rental.getStatus()
-            };
-            rentalTableModel.addRow(row);
+            rentalTableModel.addRow(myRentalRow(rental, formatter));
+        }
+        for (Reservation reservation : rentalController.getBookedReservationsByCustomer(currentUser.getUsername())) {
+            rentalTableModel.addRow(reservationRow(reservation, formatter));
         }
     }
     
+    private Object[] myRentalRow(Rental rental, DateTimeFormatter formatter) {
+        return new Object[] {
+            rental.getRentalId(),
+            rental.getVehicleName(),
+            rental.getRentalDate().format(formatter),
+            rental.getExpectedReturnDate().format(formatter),
+            rental.getFormattedDuration(),
+            rental.getStatus()
+        };
+    }
+    
+    private Object[] reservationRow(Reservation reservation, DateTimeFormatter formatter) {
+        return new Object[] {
+            reservation.getReservationId(),
+            reservation.getVehicleName(),
+            reservation.getStartDate().format(formatter),
+            reservation.getEndDate().format(formatter),
+            reservation.getFormattedDuration(),
+            reservation.getStatus()
+        };
+    }
+    
     private void loadRentalHistory() {
-        historyTableModel.setRowCount(0);
-        List<Rental> rentals = rentalController.getRentalsByCustomer(currentUser.getUsername());
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
-
-        for (Rental rental : rentals) {
-            Object[] row = {
-                rental.getRentalId(),
-                rental.getVehicleName(),
-                rental.getFormattedDuration(),
-                String.format("%.2f", rental.getTotalCost()),
-                rental.getRentalDate().format(formatter),
-                rental.getExpectedReturnDate() != null ? rental.getExpectedReturnDate().format(formatter) : "-",
-                rental.getGiveBackDate() != null ? rental.getGiveBackDate().format(formatter) : "-",
-                rental.getStatus()
-            };
-            historyTableModel.addRow(row);
-        }
+        historyPages.reload();
+    }
+    
+    private Object[] historyRow(Rental rental, DateTimeFormatter formatter) {
+        return new Object[] {
+            rental.getRentalId(),
+            rental.getVehicleName(),
+            rental.getFormattedDuration(),
+            String.format("%.2f", rental.getTotalCost()),
+            rental.getRentalDate().format(formatter),
+            rental.getExpectedReturnDate() != null ? rental.getExpectedReturnDate().format(formatter) : "-",
+            rental.getGiveBackDate() != null ? rental.getGiveBackDate().format(formatter) : "-",
+            rental.getStatus()
+        };
     }
     
     private Color darkenColor(Color color, float fraction) {
@@ -0,0 +1,152 @@
+package view;
+
+import javax.swing.table.DefaultTableModel;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Vector;
+
+/**
+ * Table model whose rows are keyed by the value in the first column.
+ * Keeps a key -> row map so change events can update, insert or remove a
+ * single row without scanning or rebuilding the table. Each key points at a
+ * mutable row reference; inserting or removing a row shifts the references
+ * after it by one, a plain array walk like the one the row Vector does
+ * itself, so no key is ever rehashed. Bulk changes (setRowCount, moveRow,
+ * setDataVector) mark the map stale and it is rebuilt on the next lookup.
+ */
+class KeyedTableModel extends DefaultTableModel {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Current index of one row
+     */
+    private static class RowRef implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        int row;
+
+        RowRef(int row) {
+            this.row = row;
+        }
+    }
+
+    private final Map<Object, RowRef> rowByKey = new HashMap<>();
+    // One reference per row, in row order
+    private final List<RowRef> refs = new ArrayList<>();
+    private boolean stale;
+
+    KeyedTableModel(Object[] columns) {
+        super(columns, 0);
+    }
+
+    /**
+     * Find the row holding a key.
+     * @param key Value of the first column
+     * @return Row index, or -1 if the key is not in the table
+     */
+    int findRow(Object key) {
+        if (stale) {
+            rowByKey.clear();
+            refs.clear();
+            for (int row = 0; row < getRowCount(); row++) {
+                RowRef ref = new RowRef(row);
+                refs.add(ref);
+                rowByKey.put(getValueAt(row, 0), ref);
+            }
+            stale = false;
+        }
+        RowRef ref = rowByKey.get(key);
+        return ref == null ? -1 : ref.row;
+    }
+
+    /**
+     * Replace the row with the same key, or append it if there is none.
+     * @param rowData Row values; the first is the key
+     */
+    @SuppressWarnings("unchecked")
+    void putRow(Object[] rowData) {
+        int row = findRow(rowData[0]);
+        if (row < 0) {
+            addRow(rowData);
+            return;
+        }
+        Vector<Object> cells = dataVector.elementAt(row);
+        for (int column = 0; column < rowData.length && column < cells.size(); column++) {
+            cells.set(column, rowData[column]);
+        }
+        fireTableRowsUpdated(row, row);
+    }
+
+    /**
+     * Remove the row with a key, if present.
+     * @param key Value of the first column
+     */
+    void removeRowByKey(Object key) {
+        int row = findRow(key);
+        if (row >= 0) {
+            removeRow(row);
+        }
+    }
+
+    @Override
+    public void insertRow(int row, Vector<?> rowData) {
+        super.insertRow(row, rowData);
+        if (stale) {
+            return;
+        }
+        RowRef ref = new RowRef(row);
+        refs.add(row, ref);
+        for (int later = row + 1; later < refs.size(); later++) {
+            refs.get(later).row++;
+        }
+        rowByKey.put(getValueAt(row, 0), ref);
+    }
+
+    @Override
+    public void removeRow(int row) {
+        Object key = getValueAt(row, 0);
+        super.removeRow(row);
+        if (stale) {
+            return;
+        }
+        RowRef ref = refs.remove(row);
+        for (int later = row; later < refs.size(); later++) {
+            refs.get(later).row--;
+        }
+        // A duplicate key may have taken the entry over; leave that one alone
+        rowByKey.remove(key, ref);
+    }
+
+    @Override
+    public void setRowCount(int rowCount) {
+        super.setRowCount(rowCount);
+        stale = true;
+    }
+
+    @Override
+    public void moveRow(int start, int end, int to) {
+        super.moveRow(start, end, to);
+        stale = true;
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public void setDataVector(Vector<? extends Vector> dataVector, Vector<?> columnIdentifiers) {
+        super.setDataVector(dataVector, columnIdentifiers);
+        stale = true;
+    }
+
+    @Override
+    public void setValueAt(Object value, int row, int column) {
+        Object oldKey = column == 0 ? getValueAt(row, 0) : null;
+        super.setValueAt(value, row, column);
+        if (column == 0 && !stale) {
+            RowRef ref = refs.get(row);
+            rowByKey.remove(oldKey, ref);
+            rowByKey.put(value, ref);
+        }
+    }
+}
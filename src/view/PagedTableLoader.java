@@ -0,0 +1,80 @@
+package view;
+
+import controller.Page;
+import javax.swing.JScrollBar;
+import javax.swing.JScrollPane;
+import java.util.function.Function;
+
+/**
+ * Fills a keyed table one page at a time as the user scrolls.
+ * The first page is loaded by reload(); the next one is fetched when the
+ * scroll bar comes within half a screen of the bottom, so only the rows the
+ * user has looked at are ever materialized. Runs on the EDT.
+ * @param <T> Record type shown in the table
+ */
+class PagedTableLoader<T> {
+    static final int PAGE_SIZE = 200;
+
+    /**
+     * Fetches one page from a controller
+     */
+    interface PageSource<T> {
+        Page<T> fetch(String cursor, int pageSize);
+    }
+
+    private final KeyedTableModel model;
+    private final PageSource<T> source;
+    private final Function<T, Object[]> rowMapper;
+    private String cursor;
+    private boolean complete;
+
+    /**
+     * @param scrollPane Scroll pane around the table
+     * @param model Model of the table
+     * @param source Page query
+     * @param rowMapper Converts a record into a table row
+     */
+    PagedTableLoader(JScrollPane scrollPane, KeyedTableModel model, PageSource<T> source,
+                     Function<T, Object[]> rowMapper) {
+        this.model = model;
+        this.source = source;
+        this.rowMapper = rowMapper;
+        JScrollBar scrollBar = scrollPane.getVerticalScrollBar();
+        scrollBar.addAdjustmentListener(e -> {
+            // Within half a screen of the bottom
+            int remaining = scrollBar.getMaximum() - scrollBar.getValue() - scrollBar.getVisibleAmount();
+            if (!complete && remaining <= scrollBar.getVisibleAmount() / 2) {
+                loadNextPage();
+            }
+        });
+    }
+
+    /**
+     * Clear the table and load the first page
+     */
+    void reload() {
+        model.setRowCount(0);
+        cursor = null;
+        complete = false;
+        loadNextPage();
+    }
+
+    private void loadNextPage() {
+        Page<T> page = source.fetch(cursor, PAGE_SIZE);
+        for (T record : page.getItems()) {
+            model.putRow(rowMapper.apply(record));
+        }
+        cursor = page.getNextCursor();
+        complete = !page.hasMore();
+    }
+
+    /**
+     * Whether a changed record belongs in the table now. Records past the
+     * loaded pages are left for the page that reaches them, so rows stay in order.
+     * @param key Value of the first column
+     * @return true if the row is already loaded or every page is
+     */
+    boolean isLoaded(Object key) {
+        return complete || model.findRow(key) >= 0;
+    }
+}
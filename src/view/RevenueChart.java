@@ -0,0 +1,107 @@
+package view;
+
+import controller.RevenueBucket;
+
+import javax.swing.JComponent;
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bar chart of revenue per time bucket, with the booking count under each bar.
+ * Paints straight from the buckets it is given; labels are thinned out so
+ * they never overlap however many buckets are shown.
+ */
+class RevenueChart extends JComponent {
+    private static final long serialVersionUID = 1L;
+
+    private static final int PADDING = 40;
+
+    private final Color barColor;
+    private final Color textColor;
+    private final Color gridColor;
+    private List<RevenueBucket> buckets = new ArrayList<>();
+    private DateTimeFormatter labelFormat = DateTimeFormatter.ofPattern("MMM");
+
+    RevenueChart(Color barColor, Color textColor, Color gridColor) {
+        this.barColor = barColor;
+        this.textColor = textColor;
+        this.gridColor = gridColor;
+        setPreferredSize(new Dimension(600, 320));
+        setFont(new Font("Segoe UI", Font.PLAIN, 12));
+    }
+
+    /**
+     * Show a new series.
+     * @param buckets Buckets in time order
+     * @param labelFormat Format of the bucket labels along the bottom
+     */
+    void setBuckets(List<RevenueBucket> buckets, DateTimeFormatter labelFormat) {
+        this.buckets = buckets;
+        this.labelFormat = labelFormat;
+        repaint();
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        Graphics2D g2d = (Graphics2D) g.create();
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g2d.setFont(getFont());
+        FontMetrics metrics = g2d.getFontMetrics();
+
+        int left = PADDING + metrics.stringWidth("$000000");
+        int bottom = getHeight() - PADDING - metrics.getHeight();
+        int width = getWidth() - left - PADDING;
+        int height = bottom - PADDING;
+        if (buckets.isEmpty() || width <= 0 || height <= 0) {
+            g2d.dispose();
+            return;
+        }
+
+        long maxCents = 1;
+        for (RevenueBucket bucket : buckets) {
+            maxCents = Math.max(maxCents, bucket.getRevenueCents());
+        }
+
+        // Horizontal grid lines with revenue labels
+        for (int step = 0; step <= 4; step++) {
+            int y = bottom - height * step / 4;
+            g2d.setColor(gridColor);
+            g2d.drawLine(left, y, left + width, y);
+            g2d.setColor(textColor);
+            String label = String.format("$%.0f", maxCents / 100.0 * step / 4);
+            g2d.drawString(label, left - metrics.stringWidth(label) - 6, y + metrics.getAscent() / 2);
+        }
+
+        double slot = width / (double) buckets.size();
+        int barWidth = Math.max(1, (int) (slot * 0.7));
+        // Label every n-th bucket so labels keep their width apart
+        int labelEvery = Math.max(1, (int) Math.ceil((metrics.stringWidth("00 May") + 8) / slot));
+        for (int i = 0; i < buckets.size(); i++) {
+            RevenueBucket bucket = buckets.get(i);
+            int x = left + (int) (i * slot + (slot - barWidth) / 2);
+            int barHeight = (int) (height * bucket.getRevenueCents() / (double) maxCents);
+            g2d.setColor(barColor);
+            g2d.fillRect(x, bottom - barHeight, barWidth, barHeight);
+            if (i % labelEvery == 0) {
+                g2d.setColor(textColor);
+                String label = bucket.getStart().format(labelFormat);
+                int center = x + barWidth / 2;
+                g2d.drawString(label, center - metrics.stringWidth(label) / 2, bottom + metrics.getAscent() + 4);
+                String booked = bucket.getBookedCount() + " booked";
+                if (slot * labelEvery > metrics.stringWidth(booked) + 8) {
+                    g2d.drawString(booked, center - metrics.stringWidth(booked) / 2,
+                        bottom + metrics.getAscent() + metrics.getHeight() + 4);
+                }
+            }
+        }
+        g2d.dispose();
+    }
+}
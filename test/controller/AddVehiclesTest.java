@@ -0,0 +1,81 @@
+package controller;
+
+import model.Vehicle;
+import model.VehicleStatus;
+import model.VehicleType;
+
+import java.util.List;
+
+/**
+ * Checks that VehicleController.addVehicles() stores copies of its input and
+ * rejects the prices the CSV import rejects.
+ *
+ * Run with: java -ea -cp bin:test-bin controller.AddVehiclesTest
+ */
+public class AddVehiclesTest {
+
+    public static void main(String[] args) {
+        addingAStoredVehicleLeavesItInPlace();
+        addingTheSameObjectTwiceStoresTwoVehicles();
+        invalidPricesAreRejected();
+        System.out.println("AddVehiclesTest passed");
+    }
+
+    private static void addingAStoredVehicleLeavesItInPlace() {
+        VehicleController controller = new VehicleController();
+        int before = controller.getVehicleCount();
+        Vehicle existing = controller.getVehicleById("V001");
+
+        check(controller.addVehicles(List.of(existing)) == 1, "one vehicle added");
+
+        check(controller.getVehicleById("V001") == existing, "V001 still stored");
+        check("V001".equals(existing.getVehicleId()), "caller's vehicle keeps its ID");
+        Vehicle copy = controller.getVehicleById("V021");
+        check(copy != null && copy != existing, "copy stored as V021");
+        check(existing.getVehicleName().equals(copy.getVehicleName()), "copy keeps the name");
+        checkDistinctIds(controller, before + 1);
+    }
+
+    private static void addingTheSameObjectTwiceStoresTwoVehicles() {
+        VehicleController controller = new VehicleController();
+        int before = controller.getVehicleCount();
+        Vehicle vehicle = new Vehicle(null, "Kia Rio", VehicleType.CAR, 35.0, VehicleStatus.AVAILABLE);
+
+        check(controller.addVehicles(List.of(vehicle, vehicle)) == 2, "two vehicles added");
+
+        check(controller.getVehicleById("V021") != controller.getVehicleById("V022"), "two distinct vehicles");
+        checkDistinctIds(controller, before + 2);
+    }
+
+    private static void invalidPricesAreRejected() {
+        for (double price : new double[] {Double.NaN, Double.POSITIVE_INFINITY, -5.0, 0.0}) {
+            VehicleController controller = new VehicleController();
+            int before = controller.getVehicleCount();
+            List<Vehicle> batch = List.of(
+                new Vehicle(null, "Kia Rio", VehicleType.CAR, 35.0, VehicleStatus.AVAILABLE),
+                new Vehicle(null, "Kia Picanto", VehicleType.CAR, price, VehicleStatus.AVAILABLE));
+            try {
+                controller.addVehicles(batch);
+                throw new AssertionError("price " + price + " accepted");
+            } catch (IllegalArgumentException expected) {
+                // The whole batch is refused
+            }
+            check(controller.getVehicleCount() == before, "fleet unchanged after price " + price);
+        }
+    }
+
+    private static void checkDistinctIds(VehicleController controller, int expectedCount) {
+        List<Vehicle> all = controller.getAllVehicles();
+        check(all.size() == expectedCount, "fleet has " + expectedCount + " vehicles, got " + all.size());
+        for (int i = 1; i < all.size(); i++) {
+            check(all.get(i - 1).getVehicleNumber() < all.get(i).getVehicleNumber(),
+                "IDs unique and ascending at " + all.get(i).getVehicleId());
+        }
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package controller;
+
+import model.Vehicle;
+import model.VehicleStatus;
+import model.VehicleType;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Checks that a VehicleController running on a ColumnarFleetStore answers
+ * like one holding Vehicle objects, through adds, updates, status changes
+ * and deletes.
+ *
+ * Run with: java -ea -cp bin:test-bin controller.ColumnarModeTest
+ */
+public class ColumnarModeTest {
+
+    private static final String[] NAMES = {"Toyota Camry", "Honda Civic", "Kia Rio", "Ford Ranger", "ford focus"};
+
+    public static void main(String[] args) {
+        sameAnswersAsObjectMode();
+        onlyOneTransitionWins();
+        restartsOnExistingStore();
+        System.out.println("ColumnarModeTest passed");
+    }
+
+    private static void sameAnswersAsObjectMode() {
+        VehicleController objects = new VehicleController();
+        VehicleController columns = new VehicleController(new ColumnarFleetStore());
+        Random random = new Random(7);
+        VehicleType[] types = VehicleType.values();
+        VehicleStatus[] statuses = VehicleStatus.values();
+        for (int step = 0; step < 2000; step++) {
+            String id = Vehicle.formatId(1 + random.nextInt(300));
+            String name = NAMES[random.nextInt(NAMES.length)];
+            VehicleType type = types[random.nextInt(types.length)];
+            VehicleStatus status = statuses[random.nextInt(statuses.length)];
+            double price = 5 * (1 + random.nextInt(30));
+            switch (random.nextInt(6)) {
+                case 0:
+                    check(objects.addVehicle(name, type, price, status) == columns.addVehicle(name, type, price, status),
+                        "add");
+                    break;
+                case 1:
+                    check(objects.deleteVehicle(id) == columns.deleteVehicle(id), "delete " + id);
+                    break;
+                case 2:
+                    check(objects.updateVehicle(id, name, type, price) == columns.updateVehicle(id, name, type, price),
+                        "update " + id);
+                    break;
+                case 3:
+                    check(objects.updateVehicleStatus(id, status) == columns.updateVehicleStatus(id, status),
+                        "status " + id);
+                    break;
+                default:
+                    check(objects.transitionStatus(id, VehicleStatus.AVAILABLE, status)
+                        == columns.transitionStatus(id, VehicleStatus.AVAILABLE, status), "transition " + id);
+                    break;
+            }
+            same(objects.getAllVehicles(), columns.getAllVehicles(), "fleet at step " + step);
+            check(objects.getAvailableCount() == columns.getAvailableCount(), "available count");
+            check(objects.countVehicles(List.of(status), type) == columns.countVehicles(List.of(status), type),
+                "count " + status + " " + type);
+            same(objects.searchVehiclesByName("o"), columns.searchVehiclesByName("o"), "name search");
+            same(objects.getVehiclesByStatus(status), columns.getVehiclesByStatus(status), "by status");
+            same(objects.findByPriceRange(20, 80, type, null), columns.findByPriceRange(20, 80, type, null),
+                "price range");
+            same(objects.cheapestAvailable(5), columns.cheapestAvailable(5), "cheapest");
+            same(objects.autocomplete("f", 10), columns.autocomplete("f", 10), "autocomplete");
+            same(objects.getVehiclesPage(VehicleController.SortKey.VEHICLE_ID, "I100", 10).getItems(),
+                columns.getVehiclesPage(VehicleController.SortKey.VEHICLE_ID, "I100", 10).getItems(), "page");
+        }
+        long version = columns.getVersion();
+        columns.addVehicle("Kia Rio", VehicleType.CAR, 35.0);
+        check(columns.getVersion() > version, "version moves on change");
+    }
+
+    private static void onlyOneTransitionWins() {
+        VehicleController controller = new VehicleController(new ColumnarFleetStore());
+        check(controller.transitionStatus("V001", VehicleStatus.AVAILABLE, VehicleStatus.RENTED), "first transition");
+        check(!controller.transitionStatus("V001", VehicleStatus.AVAILABLE, VehicleStatus.RENTED), "second transition");
+        check(controller.getVehicleById("V001").getStatus() == VehicleStatus.RENTED, "V001 rented");
+    }
+
+    private static void restartsOnExistingStore() {
+        VehicleController objects = new VehicleController();
+        objects.deleteVehicle("V007");
+        objects.updateVehicleStatus("V001", VehicleStatus.RENTED);
+        VehicleController columns = new VehicleController(objects.toColumnarStore());
+        same(objects.getAllVehicles(), columns.getAllVehicles(), "fleet after restart");
+        check(objects.getAvailableCount() == columns.getAvailableCount(), "available count after restart");
+        objects.addVehicle("Kia Rio", VehicleType.CAR, 35.0);
+        columns.addVehicle("Kia Rio", VehicleType.CAR, 35.0);
+        check(columns.getVehicleById("V021") != null, "numbering continues after the store's last vehicle");
+        same(objects.getAllVehicles(), columns.getAllVehicles(), "fleet after add");
+    }
+
+    private static void same(List<Vehicle> expected, List<Vehicle> actual, String message) {
+        check(expected.size() == actual.size(), message + ": " + expected.size() + " vs " + actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Vehicle a = expected.get(i);
+            Vehicle b = actual.get(i);
+            check(a.getVehicleNumber() == b.getVehicleNumber() && a.getVehicleName().equals(b.getVehicleName())
+                    && a.getVehicleType() == b.getVehicleType() && a.getPricePerDay() == b.getPricePerDay()
+                    && a.getStatus() == b.getStatus(), message + ": " + a + " vs " + b);
+        }
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+}